@@ -1,9 +1,16 @@
 package linq;
 
+import linq.collections.IntIntMap;
+import linq.collections.IntObjectMap;
+import linq.collections.LongObjectMap;
 import linq.lambda.Func1;
 import linq.lambda.Func2;
+import linq.lambda.ToIntFunc1;
+import linq.lambda.ToLongFunc1;
 
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Base class for converting to java collection types and abstract aggregation.
@@ -24,6 +31,30 @@ public abstract class Enumerable<TSource> {
         return source;
     }
 
+    /**
+     * Returns an iterator over the underlying collection. The collection can not be modified through the iterator.
+     * @return An iterator over the elements
+     */
+    public Iterator<TSource> iterator() {
+        return Collections.unmodifiableList(source).iterator();
+    }
+
+    /**
+     * Returns a spliterator over the underlying collection. It is sized and ordered, and splits evenly.
+     * @return A spliterator over the elements
+     */
+    public Spliterator<TSource> spliterator() {
+        return Collections.unmodifiableList(source).spliterator();
+    }
+
+    /**
+     * Returns a sequential stream of the underlying collection. Call parallel on it to process it in parallel.
+     * @return A stream of the elements
+     */
+    public Stream<TSource> toStream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
     /**
      * Returns the underlying collection as a set.
      * @return The underlying collection
@@ -58,6 +89,96 @@ public abstract class Enumerable<TSource> {
         return map;
     }
 
+    /**
+     * Returns the underlying collection as a map with primitive int keys, which are not boxed. The map is sized for the
+     * amount of elements, so it is not resized while it is built. If more elements have the same key, the last one is kept.
+     * @param keyGenerator A method that converts an element to a key
+     * @param elementGenerator A method that converts an element to an element of the map
+     * @param <TElement> The type of the element
+     * @return The map created from the elements
+     */
+    public <TElement> IntObjectMap<TElement> toIntMap(ToIntFunc1<TSource> keyGenerator, Func1<TSource, TElement> elementGenerator) {
+        var map = new IntObjectMap<TElement>(source.size());
+        for (var element : source) {
+            map.put(keyGenerator.applyAsInt(element), elementGenerator.execute(element));
+        }
+
+        return map;
+    }
+
+    /**
+     * Returns the underlying collection as a map with primitive long keys, which are not boxed. The map is sized for the
+     * amount of elements, so it is not resized while it is built. If more elements have the same key, the last one is kept.
+     * @param keyGenerator A method that converts an element to a key
+     * @param elementGenerator A method that converts an element to an element of the map
+     * @param <TElement> The type of the element
+     * @return The map created from the elements
+     */
+    public <TElement> LongObjectMap<TElement> toLongMap(ToLongFunc1<TSource> keyGenerator, Func1<TSource, TElement> elementGenerator) {
+        var map = new LongObjectMap<TElement>(source.size());
+        for (var element : source) {
+            map.put(keyGenerator.applyAsLong(element), elementGenerator.execute(element));
+        }
+
+        return map;
+    }
+
+    /**
+     * Groups the elements into lists by a primitive int key, in a map whose keys are not boxed.
+     * @param keyGenerator A method that converts an element to a key
+     * @return The map of the keys and the lists of the elements with the key, in their original order
+     */
+    public IntObjectMap<List<TSource>> toIntLookup(ToIntFunc1<TSource> keyGenerator) {
+        var lookup = new IntObjectMap<List<TSource>>(source.size());
+        for (var element : source) {
+            int key = keyGenerator.applyAsInt(element);
+            var elements = lookup.get(key);
+            if (elements == null) {
+                elements = new ArrayList<>(1);
+                lookup.put(key, elements);
+            }
+
+            elements.add(element);
+        }
+
+        return lookup;
+    }
+
+    /**
+     * Groups the elements into lists by a primitive long key, in a map whose keys are not boxed.
+     * @param keyGenerator A method that converts an element to a key
+     * @return The map of the keys and the lists of the elements with the key, in their original order
+     */
+    public LongObjectMap<List<TSource>> toLongLookup(ToLongFunc1<TSource> keyGenerator) {
+        var lookup = new LongObjectMap<List<TSource>>(source.size());
+        for (var element : source) {
+            long key = keyGenerator.applyAsLong(element);
+            var elements = lookup.get(key);
+            if (elements == null) {
+                elements = new ArrayList<>(1);
+                lookup.put(key, elements);
+            }
+
+            elements.add(element);
+        }
+
+        return lookup;
+    }
+
+    /**
+     * Counts the elements by a primitive int key, without boxing the keys or the counts.
+     * @param keyGenerator A method that converts an element to a key
+     * @return The map of the keys and the amount of elements with the key
+     */
+    public IntIntMap countByInt(ToIntFunc1<TSource> keyGenerator) {
+        var counts = new IntIntMap(source.size());
+        for (var element : source) {
+            counts.add(keyGenerator.applyAsInt(element), 1);
+        }
+
+        return counts;
+    }
+
     /**
      * Iterates through the collection calls the accumulator function for each element with the result of the previous accumulation.
      * @param seed The initial value of the accumulate
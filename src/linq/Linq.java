@@ -1,8 +1,13 @@
 package linq;
 
+import linq.lambda.Func0;
+import linq.query.LazyQueryBuilder;
 import linq.query.QueryBuilder;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Static class for creating Queries.
@@ -17,4 +22,55 @@ public class Linq {
     public static <TCollection> QueryBuilder<TCollection> from(Collection<TCollection> collection) {
         return new QueryBuilder<>(collection);
     }
+
+    /**
+     * Creates a LazyQueryBuilder with the given stream. The elements of the stream are only produced when the query is executed.
+     * @param stream The stream to be queried
+     * @param <TSource> The type of the elements in the stream
+     * @return A LazyQueryBuilder that contains the stream
+     */
+    public static <TSource> LazyQueryBuilder<TSource> from(Stream<TSource> stream) {
+        return new LazyQueryBuilder<>(stream);
+    }
+
+    /**
+     * Creates a LazyQueryBuilder of consecutive integers. The integers are computed while the query is executed,
+     * they are never stored.
+     * @param start The first integer
+     * @param count The amount of integers
+     * @return A LazyQueryBuilder of the integers from start to start + count - 1
+     */
+    public static LazyQueryBuilder<Integer> range(int start, int count) {
+        if (count < 0 || (long) start + count - 1 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The count must be a natural number, and the range must end at most at Integer.MAX_VALUE.");
+        }
+
+        return new LazyQueryBuilder<>(StreamSupport.stream(new RangeSpliterator(start, (long) start + count), false));
+    }
+
+    /**
+     * Creates a LazyQueryBuilder that contains the same element the given amount of times, without storing it more than once.
+     * @param element The repeated element
+     * @param count The amount of times the element is repeated
+     * @param <TSource> The type of the element
+     * @return A LazyQueryBuilder of the repeated element
+     */
+    public static <TSource> LazyQueryBuilder<TSource> repeat(TSource element, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The count must be a natural number.");
+        }
+
+        return new LazyQueryBuilder<>(Collections.nCopies(count, element).stream());
+    }
+
+    /**
+     * Creates an infinite LazyQueryBuilder whose elements are produced by the generator when they are needed. The query
+     * must be limited with take, or finished with an action that stops early (e.g. first or any).
+     * @param generator The generator that produces the elements
+     * @param <TSource> The type of the elements
+     * @return A LazyQueryBuilder of the generated elements
+     */
+    public static <TSource> LazyQueryBuilder<TSource> generate(Func0<TSource> generator) {
+        return new LazyQueryBuilder<>(Stream.generate(generator::execute));
+    }
 }
@@ -0,0 +1,65 @@
+package linq;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over a range of ints, which computes the elements instead of storing them.
+ */
+class RangeSpliterator implements Spliterator<Integer> {
+    // The next element and the exclusive end, as longs so a range can end at Integer.MAX_VALUE
+    private long next;
+    private long end;
+
+    RangeSpliterator(long start, long end) {
+        this.next = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Integer> action) {
+        if (next >= end) {
+            return false;
+        }
+
+        action.accept((int) next++);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Integer> action) {
+        long current = next;
+        next = end;
+        for (long i = current; i < end; i++) {
+            action.accept((int) i);
+        }
+    }
+
+    @Override
+    public Spliterator<Integer> trySplit() {
+        long size = end - next;
+        if (size < 2) {
+            return null;
+        }
+
+        long start = next;
+        next = start + size / 2;
+        return new RangeSpliterator(start, next);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Math.max(0, end - next);
+    }
+
+    @Override
+    public int characteristics() {
+        return SIZED | SUBSIZED | ORDERED | SORTED | DISTINCT | NONNULL | IMMUTABLE;
+    }
+
+    @Override
+    public Comparator<? super Integer> getComparator() {
+        return null;
+    }
+}
@@ -0,0 +1,116 @@
+package linq.aggregates;
+
+import linq.collections.Hashing;
+
+/**
+ * Estimates the amount of distinct values in a fixed amount of memory. With precision p, it uses 2^p bytes and the
+ * typical relative error of the estimate is 1.04 / sqrt(2^p). The values are hashed by their hashCode, so values with
+ * the same hashCode are counted once: among n distinct values about n^2 / 2^33 pairs collide, which is more than the
+ * error of the sketch above tens of millions of values. Values that have a 64 bit key, or a 64 bit hash of their own,
+ * should be added with addLong instead. Sketches of different parts of a collection can be merged, if they have the
+ * same precision.
+ */
+public class HyperLogLog {
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private int precision;
+    private byte[] registers;
+
+    /**
+     * Creates an empty sketch.
+     * @param precision The amount of bits that select the register of a value, between 4 and 18
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("The precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + ".");
+        }
+
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Adds a value to the sketch.
+     * @param value The value to be added
+     */
+    public void add(Object value) {
+        addHash(Hashing.hash64(value));
+    }
+
+    /**
+     * Adds a 64 bit value to the sketch, e.g. a key or a 64 bit hash of a value. Different values are only counted
+     * once if they are equal, not if their hashCode is.
+     * @param value The value to be added
+     */
+    public void addLong(long value) {
+        addHash(Hashing.hash64(value));
+    }
+
+    private void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // The guard bit limits the rank if the remaining bits are all zeros
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Adds the values of an other sketch to this sketch.
+     * @param other The sketch to be merged into this one
+     * @return This sketch
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Only sketches with the same precision can be merged.");
+        }
+
+        for (int i = 0; i < registers.length; i++) {
+            registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+        }
+
+        return this;
+    }
+
+    /**
+     * Estimates the amount of distinct values added to the sketch.
+     * @return The estimated amount of distinct values
+     */
+    public long estimate() {
+        int registerCount = registers.length;
+        double sum = 0;
+        int zeroRegisters = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeroRegisters++;
+            }
+        }
+
+        double estimate = alpha(registerCount) * registerCount * registerCount / sum;
+        if (estimate <= 2.5 * registerCount && zeroRegisters > 0) {
+            // Linear counting is more accurate for small cardinalities
+            estimate = registerCount * Math.log((double) registerCount / zeroRegisters);
+        }
+
+        return Math.round(estimate);
+    }
+
+    private static double alpha(int registerCount) {
+        switch (registerCount) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / registerCount);
+        }
+    }
+}
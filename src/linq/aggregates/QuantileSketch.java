@@ -0,0 +1,226 @@
+package linq.aggregates;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Estimates the quantiles of a sequence of numbers in a small amount of memory (a KLL sketch). The values are kept in
+ * levels of compactors. When a level is full it is sorted, and every other value is moved to the next level, where
+ * each value stands for twice as many values. The memory used grows only with the logarithm of the amount of values,
+ * and the rank error of the estimated quantiles is about 1.7 / k. Sketches of different parts of a collection can be merged.
+ */
+public class QuantileSketch {
+    public static final int DEFAULT_K = 200;
+
+    private int k;
+    private Random random;
+    private ArrayList<Compactor> levels;
+    private int size;
+    private int capacity;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    /**
+     * Creates an empty sketch with the default accuracy.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Creates an empty sketch.
+     * @param k The capacity of the largest compactor, the higher it is, the more accurate the sketch is
+     */
+    public QuantileSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("The k of the sketch must be at least 8.");
+        }
+
+        this.k = k;
+        this.random = new Random();
+        this.levels = new ArrayList<>();
+        addLevel();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Adds a value to the sketch.
+     * @param value The value to be added
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+
+        min = count == 0 ? value : Math.min(min, value);
+        max = count == 0 ? value : Math.max(max, value);
+        count++;
+
+        levels.get(0).add(value);
+        size++;
+        compress();
+    }
+
+    /**
+     * Adds the values of an other sketch to this sketch.
+     * @param other The sketch to be merged into this one
+     * @return This sketch
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return this;
+        }
+
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+
+        for (int level = 0; level < other.levels.size(); level++) {
+            if (level == levels.size()) {
+                addLevel();
+            }
+
+            var otherCompactor = other.levels.get(level);
+            for (int i = 0; i < otherCompactor.size; i++) {
+                levels.get(level).add(otherCompactor.values[i]);
+            }
+
+            size += otherCompactor.size;
+        }
+
+        compress();
+        return this;
+    }
+
+    /**
+     * Estimates the value below which the given fraction of the values are.
+     * @param quantile The fraction of the values, between 0 and 1 (0.5 is the median)
+     * @return The estimated quantile, or NaN if the sketch is empty
+     */
+    public double quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("The quantile must be between 0 and 1.");
+        }
+
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        if (quantile == 0) {
+            return min;
+        }
+
+        if (quantile == 1) {
+            return max;
+        }
+
+        // A value on level h stands for 2^h values
+        var values = new double[size];
+        var weights = new long[size];
+        var order = new Integer[size];
+        int index = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            var compactor = levels.get(level);
+            for (int i = 0; i < compactor.size; i++) {
+                values[index] = compactor.values[i];
+                weights[index] = 1L << level;
+                order[index] = index;
+                index++;
+            }
+        }
+
+        Arrays.sort(order, (i, j) -> Double.compare(values[i], values[j]));
+
+        long totalWeight = 0;
+        for (long weight : weights) {
+            totalWeight += weight;
+        }
+
+        double targetWeight = quantile * totalWeight;
+        long cumulativeWeight = 0;
+        for (int i : order) {
+            cumulativeWeight += weights[i];
+            if (cumulativeWeight >= targetWeight) {
+                return values[i];
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Compacts the lowest full levels until the sketch fits into its capacity.
+     */
+    private void compress() {
+        while (size >= capacity) {
+            for (int level = 0; level < levels.size(); level++) {
+                if (levels.get(level).size >= capacity(level)) {
+                    compact(level);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void compact(int level) {
+        if (level + 1 == levels.size()) {
+            addLevel();
+        }
+
+        var compactor = levels.get(level);
+        var nextCompactor = levels.get(level + 1);
+        Arrays.sort(compactor.values, 0, compactor.size);
+
+        // With an odd size the largest value stays on this level
+        int compactedSize = compactor.size - compactor.size % 2;
+        int offset = random.nextBoolean() ? 1 : 0;
+        for (int i = offset; i < compactedSize; i += 2) {
+            nextCompactor.add(compactor.values[i]);
+        }
+
+        if (compactedSize < compactor.size) {
+            compactor.values[0] = compactor.values[compactedSize];
+        }
+
+        compactor.size -= compactedSize;
+        size -= compactedSize / 2;
+    }
+
+    /**
+     * Adds a new top level, which makes each level below it smaller.
+     */
+    private void addLevel() {
+        levels.add(new Compactor());
+
+        capacity = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            capacity += capacity(level);
+        }
+    }
+
+    /**
+     * The capacity of the top level is k, and each level below it is 2/3 as large.
+     */
+    private int capacity(int level) {
+        int depth = levels.size() - level - 1;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+    }
+
+    private static class Compactor {
+        private double[] values = new double[16];
+        private int size;
+
+        void add(double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package linq.aggregates;
+
+/**
+ * Count, sum, minimum, maximum, average and variance of a sequence of numbers, computed in a single pass.
+ * Statistics of different parts of a collection can be combined.
+ */
+public class Statistics {
+    private long count;
+    private double sum;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private double mean;
+    private double squaredDeviations;
+
+    /**
+     * Adds a value to the statistics.
+     * @param value The value to be added
+     */
+    public void add(double value) {
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        count++;
+        sum += value;
+
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (value - mean);
+    }
+
+    /**
+     * Adds the values of other statistics to these statistics.
+     * @param other The statistics to be combined with these
+     * @return These statistics
+     */
+    public Statistics combine(Statistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+
+        if (count == 0) {
+            min = other.min;
+            max = other.max;
+        } else {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        long combinedCount = count + other.count;
+        double delta = other.mean - mean;
+        squaredDeviations += other.squaredDeviations + delta * delta * count * other.count / combinedCount;
+        mean += delta * other.count / combinedCount;
+        sum += other.sum;
+        count = combinedCount;
+
+        return this;
+    }
+
+    /**
+     * Returns the amount of values.
+     * @return The amount of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the values.
+     * @return The sum of the values
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the smallest value, or NaN if there are no values.
+     * @return The smallest value
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Returns the largest value, or NaN if there are no values.
+     * @return The largest value
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the average of the values, or NaN if there are no values.
+     * @return The average of the values
+     */
+    public double getAverage() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Returns the population variance of the values, or NaN if there are no values.
+     * @return The variance of the values
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : squaredDeviations / count;
+    }
+
+    /**
+     * Returns the sample variance of the values, or NaN if there are less than 2 values.
+     * @return The sample variance of the values
+     */
+    public double getSampleVariance() {
+        return count < 2 ? Double.NaN : squaredDeviations / (count - 1);
+    }
+
+    /**
+     * Returns the population standard deviation of the values, or NaN if there are no values.
+     * @return The standard deviation of the values
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+}
@@ -0,0 +1,191 @@
+package linq.cache;
+
+import linq.lambda.Func0;
+import linq.lambda.Func1;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the results of queries by a fingerprint that identifies the query, and the version of the source collection
+ * the result was computed from. The caller increments the version whenever the source changes, and results computed
+ * from an older version are not returned anymore. If the cache is full, the least recently used results are evicted.
+ * The cached results are shared between the callers, so they should not be modified.
+ * @param <TKey> The type of the query fingerprint
+ * @param <TResult> The type of the query results
+ */
+public class QueryCache<TKey, TResult> {
+    private LinkedHashMap<TKey, Entry<TResult>> entries;
+    private Func1<TResult, Integer> weigher;
+    private long maxWeight;
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long invalidationCount;
+
+    /**
+     * Creates a cache that holds at most maxEntries results.
+     * @param maxEntries The maximum amount of cached results
+     */
+    public QueryCache(int maxEntries) {
+        this(maxEntries, result -> 1);
+    }
+
+    /**
+     * Creates a cache where the total weight of the results is at most maxWeight. Results that weigh more than
+     * maxWeight on their own are not cached.
+     * @param maxWeight The maximum total weight of the cached results
+     * @param weigher The function that tells the weight of a result, e.g. the amount of its elements
+     */
+    public QueryCache(long maxWeight, Func1<TResult, Integer> weigher) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("The maximum weight of the cache must be at least 1.");
+        }
+
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.weigher = weigher;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Returns the cached result of the query if it was computed from the same version of the source, otherwise
+     * executes the query and caches its result. The query is executed outside of the lock of the cache, so if
+     * multiple threads miss the same query at the same time, each of them executes it.
+     * @param fingerprint The fingerprint of the query
+     * @param version The current version of the source of the query
+     * @param query The query that computes the result
+     * @return The result of the query
+     */
+    public TResult get(TKey fingerprint, long version, Func0<TResult> query) {
+        synchronized (this) {
+            var entry = entries.get(fingerprint);
+            if (entry != null) {
+                if (entry.version == version) {
+                    hitCount++;
+                    return entry.result;
+                }
+
+                remove(fingerprint, entry);
+                invalidationCount++;
+            }
+
+            missCount++;
+        }
+
+        var result = query.execute();
+        put(fingerprint, version, result);
+        return result;
+    }
+
+    /**
+     * Removes the cached result of the query.
+     * @param fingerprint The fingerprint of the query
+     */
+    public synchronized void invalidate(TKey fingerprint) {
+        var entry = entries.get(fingerprint);
+        if (entry != null) {
+            remove(fingerprint, entry);
+            invalidationCount++;
+        }
+    }
+
+    /**
+     * Removes every cached result.
+     */
+    public synchronized void invalidateAll() {
+        invalidationCount += entries.size();
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the amount of results that were removed to make room for other results.
+     * @return The amount of evicted results
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the amount of results that were removed because their source changed or they were invalidated.
+     * @return The amount of invalidated results
+     */
+    public synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * Returns the ratio of the lookups that found a cached result.
+     * @return The hit rate, or NaN if there were no lookups
+     */
+    public synchronized double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? Double.NaN : (double) hitCount / lookups;
+    }
+
+    private synchronized void put(TKey fingerprint, long version, TResult result) {
+        int resultWeight = weigher.execute(result);
+        if (resultWeight < 0) {
+            throw new IllegalArgumentException("The weight of a result can not be negative.");
+        }
+
+        var previous = entries.get(fingerprint);
+        if (previous != null) {
+            if (previous.version > version) {
+                return;
+            }
+
+            remove(fingerprint, previous);
+        }
+
+        if (resultWeight > maxWeight) {
+            return;
+        }
+
+        entries.put(fingerprint, new Entry<>(result, version, resultWeight));
+        weight += resultWeight;
+
+        Iterator<Map.Entry<TKey, Entry<TResult>>> leastRecentlyUsed = entries.entrySet().iterator();
+        while (weight > maxWeight) {
+            var evicted = leastRecentlyUsed.next();
+            weight -= evicted.getValue().weight;
+            leastRecentlyUsed.remove();
+            evictionCount++;
+        }
+    }
+
+    private void remove(TKey fingerprint, Entry<TResult> entry) {
+        entries.remove(fingerprint);
+        weight -= entry.weight;
+    }
+
+    private static class Entry<TResult> {
+        private TResult result;
+        private long version;
+        private int weight;
+
+        Entry(TResult result, long version, int weight) {
+            this.result = result;
+            this.version = version;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package linq.collections;
+
+/**
+ * A compact probabilistic set. It can tell for sure that an element was not added, but may wrongly report an element
+ * as added with roughly the false positive rate it was created with. The elements are hashed by their hashCode.
+ * @param <T> The type of the elements
+ */
+public class BloomFilter<T> {
+    private long[] bits;
+    private long bitCount;
+    private int hashCount;
+
+    /**
+     * Creates a Bloom filter that is sized for the expected amount of elements and false positive rate.
+     * @param expectedElements The expected amount of elements
+     * @param falsePositiveRate The desired probability of a false positive, between 0 and 1 (exclusive)
+     */
+    public BloomFilter(int expectedElements, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1.");
+        }
+
+        int elements = Math.max(1, expectedElements);
+        bitCount = Math.max(64, (long) Math.ceil(-elements * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / elements * Math.log(2)));
+        bits = new long[(int) ((bitCount + 63) / 64)];
+        bitCount = bits.length * 64L;
+    }
+
+    /**
+     * Adds an element to the filter.
+     * @param element The element to be added
+     */
+    public void add(T element) {
+        long hash = Hashing.hash64(element);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + (long) i * hash2, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Checks whether the element might have been added to the filter.
+     * @param element The element to be checked
+     * @return False if the element was certainly not added, true if it probably was
+     */
+    public boolean mightContain(T element) {
+        long hash = Hashing.hash64(element);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + (long) i * hash2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
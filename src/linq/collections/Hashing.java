@@ -0,0 +1,35 @@
+package linq.collections;
+
+import java.util.Objects;
+
+/**
+ * Hash functions for probabilistic data structures, which need the bits of the hash to be evenly distributed.
+ */
+public class Hashing {
+    private Hashing() {
+    }
+
+    /**
+     * Spreads the 32 bit hash code of the element to 64 bits (the finalizer of MurmurHash3).
+     * @param element The element to be hashed, can be null
+     * @return The 64 bit hash of the element
+     */
+    public static long hash64(Object element) {
+        return hash64((long) Objects.hashCode(element));
+    }
+
+    /**
+     * Spreads the bits of a 64 bit value (the finalizer of MurmurHash3). Different values have different hashes.
+     * @param value The value to be hashed
+     * @return The 64 bit hash of the value
+     */
+    public static long hash64(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,191 @@
+package linq.collections;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable column of primitive ints, e.g. a property selected from every element of a query. The filters and
+ * aggregates run over the plain array without boxing, in loops without data dependent branches, which the JIT
+ * compiler can unroll and vectorize.
+ */
+public class IntColumn {
+    private int[] values;
+
+    /**
+     * Creates a column of the given values. The array is not copied, so it should not be modified afterwards.
+     * @param values The values of the column
+     */
+    public IntColumn(int[] values) {
+        this.values = values;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    public int[] toArray() {
+        return values.clone();
+    }
+
+    /**
+     * Returns the indices of the values that are between the given bounds (inclusive), in ascending order.
+     * @param min The lower bound
+     * @param max The upper bound
+     * @return The indices of the matching values
+     */
+    public int[] indicesBetween(int min, int max) {
+        if (min > max) {
+            return new int[0];
+        }
+
+        // v - min <= max - min as unsigned ints checks both bounds with one comparison
+        int range = (max - min) ^ Integer.MIN_VALUE;
+        var indices = new int[values.length];
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            indices[count] = i;
+            count += ((values[i] - min) ^ Integer.MIN_VALUE) <= range ? 1 : 0;
+        }
+
+        return Arrays.copyOf(indices, count);
+    }
+
+    /**
+     * Returns the indices of the values that are less than the given bound, in ascending order.
+     * @param bound The exclusive upper bound
+     * @return The indices of the matching values
+     */
+    public int[] indicesLessThan(int bound) {
+        var indices = new int[values.length];
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            indices[count] = i;
+            count += values[i] < bound ? 1 : 0;
+        }
+
+        return Arrays.copyOf(indices, count);
+    }
+
+    /**
+     * Returns the indices of the values that are equal to the given value, in ascending order.
+     * @param value The value to be found
+     * @return The indices of the matching values
+     */
+    public int[] indicesEqualTo(int value) {
+        var indices = new int[values.length];
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            indices[count] = i;
+            count += values[i] == value ? 1 : 0;
+        }
+
+        return Arrays.copyOf(indices, count);
+    }
+
+    /**
+     * Returns a column of the values that are between the given bounds (inclusive), keeping their order.
+     * @param min The lower bound
+     * @param max The upper bound
+     * @return The column of the matching values
+     */
+    public IntColumn between(int min, int max) {
+        return select(indicesBetween(min, max));
+    }
+
+    /**
+     * Returns a column of the values at the given indices.
+     * @param indices The indices of the values
+     * @return The column of the selected values
+     */
+    public IntColumn select(int[] indices) {
+        var selected = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = values[indices[i]];
+        }
+
+        return new IntColumn(selected);
+    }
+
+    /**
+     * Counts the values that are between the given bounds (inclusive).
+     * @param min The lower bound
+     * @param max The upper bound
+     * @return The amount of matching values
+     */
+    public int countBetween(int min, int max) {
+        if (min > max) {
+            return 0;
+        }
+
+        int range = (max - min) ^ Integer.MIN_VALUE;
+        int count = 0;
+        for (int value : values) {
+            count += ((value - min) ^ Integer.MIN_VALUE) <= range ? 1 : 0;
+        }
+
+        return count;
+    }
+
+    /**
+     * Sums the values. The sum is a long, so it does not overflow.
+     * @return The sum of the values
+     */
+    public long sum() {
+        long sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+
+        return sum;
+    }
+
+    /**
+     * Returns the smallest value.
+     * @return The smallest value
+     * @throws NoSuchElementException If the column is empty
+     */
+    public int min() {
+        validateNotEmpty();
+
+        int min = Integer.MAX_VALUE;
+        for (int value : values) {
+            min = Math.min(min, value);
+        }
+
+        return min;
+    }
+
+    /**
+     * Returns the largest value.
+     * @return The largest value
+     * @throws NoSuchElementException If the column is empty
+     */
+    public int max() {
+        validateNotEmpty();
+
+        int max = Integer.MIN_VALUE;
+        for (int value : values) {
+            max = Math.max(max, value);
+        }
+
+        return max;
+    }
+
+    /**
+     * Returns the average of the values.
+     * @return The average, or NaN if the column is empty
+     */
+    public double average() {
+        return values.length == 0 ? Double.NaN : (double) sum() / values.length;
+    }
+
+    private void validateNotEmpty() {
+        if (values.length == 0) {
+            throw new NoSuchElementException("The column is empty.");
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package linq.collections;
+
+/**
+ * A hash map with primitive int keys and values, stored without boxing in an open addressing table. Entries can not
+ * be removed.
+ */
+public class IntIntMap {
+    // A 0 key marks a free slot, so the value of the 0 key is stored separately
+    private int[] keys;
+    private int[] values;
+    private boolean hasZeroKey;
+    private int zeroValue;
+    private int size;
+    private int maxFill;
+
+    public IntIntMap() {
+        this(0);
+    }
+
+    /**
+     * Creates a map that can hold the expected amount of entries without resizing.
+     * @param expectedSize The expected amount of entries
+     */
+    public IntIntMap(int expectedSize) {
+        allocate(OpenAddressing.tableSize(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value of the key, or the default value if the map does not contain the key.
+     * @param key The key
+     * @param defaultValue The value returned if the map does not contain the key
+     * @return The value of the key
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+
+        int slot = find(key);
+        return keys[slot] == key ? values[slot] : defaultValue;
+    }
+
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : keys[find(key)] == key;
+    }
+
+    /**
+     * Sets the value of the key.
+     * @param key The key
+     * @param value The value
+     */
+    public void put(int key, int value) {
+        if (key == 0) {
+            zeroValue = value;
+            addZeroKey();
+            return;
+        }
+
+        int slot = find(key);
+        values[slot] = value;
+        if (keys[slot] != key) {
+            insert(slot, key);
+        }
+    }
+
+    /**
+     * Adds the delta to the value of the key. Keys that are not in the map have a value of 0.
+     * @param key The key
+     * @param delta The amount added to the value
+     * @return The new value of the key
+     */
+    public int add(int key, int delta) {
+        if (key == 0) {
+            addZeroKey();
+            return zeroValue += delta;
+        }
+
+        int slot = find(key);
+        if (keys[slot] == key) {
+            return values[slot] += delta;
+        }
+
+        values[slot] = delta;
+        insert(slot, key);
+        return delta;
+    }
+
+    /**
+     * Returns the keys of the map, in no particular order.
+     * @return The keys
+     */
+    public int[] keys() {
+        var result = new int[size];
+        int index = 0;
+        if (hasZeroKey) {
+            result[index++] = 0;
+        }
+
+        for (int key : keys) {
+            if (key != 0) {
+                result[index++] = key;
+            }
+        }
+
+        return result;
+    }
+
+    private void addZeroKey() {
+        if (!hasZeroKey) {
+            hasZeroKey = true;
+            size++;
+        }
+    }
+
+    private void insert(int slot, int key) {
+        keys[slot] = key;
+        if (++size > maxFill) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Returns the slot of the key, or the free slot where it would be inserted.
+     */
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int slot = OpenAddressing.mix(key) & mask;
+        while (keys[slot] != key && keys[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private void allocate(int tableSize) {
+        keys = new int[tableSize];
+        values = new int[tableSize];
+        maxFill = OpenAddressing.maxFill(tableSize);
+    }
+
+    private void rehash(int tableSize) {
+        if (keys.length == OpenAddressing.MAX_CAPACITY) {
+            throw new IllegalStateException("The map can not hold more entries.");
+        }
+
+        var oldKeys = keys;
+        var oldValues = values;
+        allocate(tableSize);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
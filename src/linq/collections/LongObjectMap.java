@@ -0,0 +1,160 @@
+package linq.collections;
+
+import java.util.Arrays;
+
+/**
+ * A hash map with primitive long keys, which are stored without boxing in an open addressing table. Entries can not be
+ * removed.
+ * @param <V> The type of the values
+ */
+public class LongObjectMap<V> {
+    // A 0 key marks a free slot, so the value of the 0 key is stored separately
+    private long[] keys;
+    private Object[] values;
+    private boolean hasZeroKey;
+    private V zeroValue;
+    private int size;
+    private int maxFill;
+
+    public LongObjectMap() {
+        this(0);
+    }
+
+    /**
+     * Creates a map that can hold the expected amount of entries without resizing.
+     * @param expectedSize The expected amount of entries
+     */
+    public LongObjectMap(int expectedSize) {
+        allocate(OpenAddressing.tableSize(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value of the key.
+     * @param key The key
+     * @return The value of the key, or null if the map does not contain the key
+     */
+    public V get(long key) {
+        return getOrDefault(key, null);
+    }
+
+    /**
+     * Returns the value of the key, or the default value if the map does not contain the key.
+     * @param key The key
+     * @param defaultValue The value returned if the map does not contain the key
+     * @return The value of the key
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(long key, V defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+
+        int slot = find(key);
+        return keys[slot] == key ? (V) values[slot] : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : keys[find(key)] == key;
+    }
+
+    /**
+     * Sets the value of the key.
+     * @param key The key
+     * @param value The value
+     * @return The previous value of the key, or null if the map did not contain the key
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == 0) {
+            var previous = zeroValue;
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+
+            return previous;
+        }
+
+        int slot = find(key);
+        if (keys[slot] == key) {
+            var previous = (V) values[slot];
+            values[slot] = value;
+            return previous;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > maxFill) {
+            rehash(keys.length * 2);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the keys of the map, in no particular order.
+     * @return The keys
+     */
+    public long[] keys() {
+        var result = new long[size];
+        int index = 0;
+        if (hasZeroKey) {
+            result[index++] = 0;
+        }
+
+        for (long key : keys) {
+            if (key != 0) {
+                result[index++] = key;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the slot of the key, or the free slot where it would be inserted.
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = OpenAddressing.mix(key) & mask;
+        while (keys[slot] != key && keys[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        values = new Object[tableSize];
+        maxFill = OpenAddressing.maxFill(tableSize);
+    }
+
+    private void rehash(int tableSize) {
+        if (keys.length == OpenAddressing.MAX_CAPACITY) {
+            throw new IllegalStateException("The map can not hold more entries.");
+        }
+
+        var oldKeys = keys;
+        var oldValues = values;
+        allocate(tableSize);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+
+        Arrays.fill(oldValues, null);
+    }
+}
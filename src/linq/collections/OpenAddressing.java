@@ -0,0 +1,41 @@
+package linq.collections;
+
+/**
+ * The common parts of the open addressing hash maps. The tables have a power of 2 size, and are filled up to 3/4.
+ */
+class OpenAddressing {
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private OpenAddressing() {
+    }
+
+    /**
+     * Returns the table size that holds the expected amount of entries without resizing.
+     */
+    static int tableSize(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("The expected size can not be negative.");
+        }
+
+        long minimumSize = Math.max(4, (long) Math.ceil(expectedSize / 0.75) + 1);
+        if (minimumSize >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+
+        return Integer.highestOneBit((int) minimumSize - 1) << 1;
+    }
+
+    static int maxFill(int tableSize) {
+        return tableSize == MAX_CAPACITY ? tableSize - 1 : tableSize / 4 * 3;
+    }
+
+    static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,30 @@
+package linq.exceptions;
+
+public class MemoryBudgetExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private long requestedBytes;
+    private long availableBytes;
+
+    public MemoryBudgetExceededException(String message, long requestedBytes, long availableBytes) {
+        super(message);
+        this.requestedBytes = requestedBytes;
+        this.availableBytes = availableBytes;
+    }
+
+    /**
+     * Returns the estimated amount of bytes the operation needed.
+     * @return The requested bytes
+     */
+    public long getRequestedBytes() {
+        return requestedBytes;
+    }
+
+    /**
+     * Returns the amount of bytes that were left in the budget.
+     * @return The available bytes
+     */
+    public long getAvailableBytes() {
+        return availableBytes;
+    }
+}
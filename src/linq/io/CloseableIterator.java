@@ -0,0 +1,16 @@
+package linq.io;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * An iterator that holds resources (e.g. temporary files) that are released when it is closed or exhausted.
+ * @param <T> The type of the elements
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+    /**
+     * Releases the resources held by the iterator. Does not throw checked exceptions.
+     */
+    @Override
+    void close();
+}
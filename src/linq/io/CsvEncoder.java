@@ -0,0 +1,99 @@
+package linq.io;
+
+import linq.lambda.Func1;
+
+import java.util.ArrayList;
+
+/**
+ * Encodes elements as CSV rows with a header row of the column names. Values that contain the separator, a quote or
+ * a line break are quoted, and null values are left empty.
+ * @param <T> The type of the elements
+ */
+public class CsvEncoder<T> implements RowEncoder<T> {
+    private ArrayList<String> names;
+    private ArrayList<Func1<T, ?>> selectors;
+    private char separator;
+
+    /**
+     * Creates a CSV encoder that separates the values with commas.
+     */
+    public CsvEncoder() {
+        this(',');
+    }
+
+    /**
+     * Creates a CSV encoder that separates the values with the given separator.
+     * @param separator The separator of the values
+     */
+    public CsvEncoder(char separator) {
+        if (separator == '"' || separator == '\n' || separator == '\r') {
+            throw new IllegalArgumentException("The separator can not be a quote or a line break.");
+        }
+
+        this.names = new ArrayList<>();
+        this.selectors = new ArrayList<>();
+        this.separator = separator;
+    }
+
+    /**
+     * Adds a column to the end of the rows.
+     * @param name The name of the column in the header
+     * @param selector The selector that selects the value of the column
+     * @return The CsvEncoder
+     */
+    public CsvEncoder<T> column(String name, Func1<T, ?> selector) {
+        names.add(name);
+        selectors.add(selector);
+        return this;
+    }
+
+    @Override
+    public void encodeHeader(StringBuilder row) {
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                row.append(separator);
+            }
+
+            appendValue(names.get(i), row);
+        }
+    }
+
+    @Override
+    public void encode(T element, StringBuilder row) {
+        for (int i = 0; i < selectors.size(); i++) {
+            if (i > 0) {
+                row.append(separator);
+            }
+
+            var value = selectors.get(i).execute(element);
+            if (value != null) {
+                appendValue(value.toString(), row);
+            }
+        }
+    }
+
+    private void appendValue(String value, StringBuilder row) {
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == separator || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quoted) {
+            row.append(value);
+            return;
+        }
+
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+
+            row.append(c);
+        }
+
+        row.append('"');
+    }
+}
@@ -0,0 +1,27 @@
+package linq.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Converts elements to and from a binary form, so they can be written to temporary files.
+ * @param <T> The type of the serialized elements
+ */
+public interface ElementSerializer<T> {
+    /**
+     * Writes an element to the output.
+     * @param output The output to write to
+     * @param element The element to be written
+     * @throws IOException If the output can not be written
+     */
+    void write(DataOutput output, T element) throws IOException;
+
+    /**
+     * Reads an element that was written by the write method.
+     * @param input The input to read from
+     * @return The element that was read
+     * @throws IOException If the input can not be read
+     */
+    T read(DataInput input) throws IOException;
+}
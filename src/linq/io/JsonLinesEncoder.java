@@ -0,0 +1,90 @@
+package linq.io;
+
+import linq.lambda.Func1;
+
+import java.util.ArrayList;
+
+/**
+ * Encodes each element as a JSON object on its own line. Numbers and booleans are written as they are, null values
+ * (and numbers that are not finite) as null, and every other value as the string of its toString.
+ * @param <T> The type of the elements
+ */
+public class JsonLinesEncoder<T> implements RowEncoder<T> {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private ArrayList<String> names = new ArrayList<>();
+    private ArrayList<Func1<T, ?>> selectors = new ArrayList<>();
+
+    /**
+     * Adds a field to the end of the objects.
+     * @param name The name of the field
+     * @param selector The selector that selects the value of the field
+     * @return The JsonLinesEncoder
+     */
+    public JsonLinesEncoder<T> field(String name, Func1<T, ?> selector) {
+        names.add(name);
+        selectors.add(selector);
+        return this;
+    }
+
+    @Override
+    public void encode(T element, StringBuilder row) {
+        row.append('{');
+        for (int i = 0; i < selectors.size(); i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+
+            appendString(names.get(i), row);
+            row.append(':');
+            appendValue(selectors.get(i).execute(element), row);
+        }
+
+        row.append('}');
+    }
+
+    private static void appendValue(Object value, StringBuilder row) {
+        if (value == null) {
+            row.append("null");
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            row.append(Double.isFinite(number) ? value.toString() : "null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            row.append(value);
+        } else {
+            appendString(value.toString(), row);
+        }
+    }
+
+    private static void appendString(String value, StringBuilder row) {
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    row.append("\\\"");
+                    break;
+                case '\\':
+                    row.append("\\\\");
+                    break;
+                case '\n':
+                    row.append("\\n");
+                    break;
+                case '\r':
+                    row.append("\\r");
+                    break;
+                case '\t':
+                    row.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        row.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        row.append(c);
+                    }
+            }
+        }
+
+        row.append('"');
+    }
+}
@@ -0,0 +1,299 @@
+package linq.io;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Persists query results to binary files that are memory-mapped when they are opened, so a service can serve ordered
+ * lists and groups it built before a restart without building them again. Elements are decoded only when they are
+ * accessed. A snapshot file can be at most 2 GB.
+ *
+ * The file starts with a header: the magic number, the format version, the kind of the snapshot (list or groups), the
+ * amount of elements and groups, and the positions of the tables. It is followed by the encoded elements, the encoded
+ * keys of the groups, the offset table of the elements, and for groups, the index of the first element of each group
+ * and the offset table of the keys. Each offset table has one more entry than encoded values, the end of the last one.
+ */
+public class QuerySnapshot {
+    private static final int MAGIC = 0x4C51534E;
+    private static final int VERSION = 1;
+    private static final int LIST = 0;
+    private static final int GROUPS = 1;
+    private static final int HEADER_SIZE = 5 * Integer.BYTES + 2 * Long.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private QuerySnapshot() {
+    }
+
+    /**
+     * Writes the elements to a snapshot file. The file is written next to the path and moved over it when it is
+     * complete, so an earlier snapshot at the path stays readable until then.
+     * @param path The path of the snapshot file
+     * @param elements The elements in the order they are listed when the snapshot is opened
+     * @param serializer The serializer that encodes the elements
+     * @param <T> The type of the elements
+     */
+    public static <T> void write(Path path, Collection<T> elements, ElementSerializer<T> serializer) {
+        writeFile(path, LIST, elements.size(), 0, output -> {
+            var offsets = new long[elements.size() + 1];
+            int index = 0;
+            for (var element : elements) {
+                offsets[index++] = output.position();
+                serializer.write(output.data, element);
+            }
+
+            offsets[index] = output.position();
+            return new long[][] { offsets };
+        });
+    }
+
+    /**
+     * Writes groups of elements to a snapshot file. The file is written next to the path and moved over it when it is
+     * complete, so an earlier snapshot at the path stays readable until then.
+     * @param path The path of the snapshot file
+     * @param groups The groups by their keys, in the order they are listed when the snapshot is opened
+     * @param keySerializer The serializer that encodes the keys
+     * @param serializer The serializer that encodes the elements
+     * @param <TKey> The type of the keys
+     * @param <T> The type of the elements
+     */
+    public static <TKey, T> void writeGroups(Path path, Map<TKey, ? extends Collection<T>> groups,
+                                             ElementSerializer<TKey> keySerializer, ElementSerializer<T> serializer) {
+        long totalCount = 0;
+        for (var group : groups.values()) {
+            totalCount += group.size();
+        }
+
+        if (totalCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A snapshot can contain at most Integer.MAX_VALUE elements.");
+        }
+
+        int count = (int) totalCount;
+        writeFile(path, GROUPS, count, groups.size(), output -> {
+            var offsets = new long[count + 1];
+            var groupStarts = new long[groups.size() + 1];
+            int index = 0;
+            int groupIndex = 0;
+            for (var group : groups.values()) {
+                groupStarts[groupIndex++] = index;
+                for (var element : group) {
+                    offsets[index++] = output.position();
+                    serializer.write(output.data, element);
+                }
+            }
+
+            offsets[index] = output.position();
+            groupStarts[groupIndex] = index;
+
+            var keyOffsets = new long[groups.size() + 1];
+            groupIndex = 0;
+            for (var key : groups.keySet()) {
+                keyOffsets[groupIndex++] = output.position();
+                keySerializer.write(output.data, key);
+            }
+
+            keyOffsets[groupIndex] = output.position();
+            return new long[][] { offsets, groupStarts, keyOffsets };
+        });
+    }
+
+    /**
+     * Opens a snapshot that was written by the write method. The file is memory-mapped, and the elements are decoded
+     * each time they are accessed.
+     * @param path The path of the snapshot file
+     * @param serializer The serializer that decodes the elements
+     * @param <T> The type of the elements
+     * @return A read-only list of the elements
+     */
+    public static <T> List<T> open(Path path, ElementSerializer<T> serializer) {
+        var buffer = map(path, LIST);
+        return new SnapshotList<>(buffer, buffer.getLong(20), 0, buffer.getInt(12), serializer);
+    }
+
+    /**
+     * Opens a snapshot that was written by the writeGroups method. The file is memory-mapped, the keys are decoded
+     * when the snapshot is opened, and the elements each time they are accessed.
+     * @param path The path of the snapshot file
+     * @param keySerializer The serializer that decodes the keys
+     * @param serializer The serializer that decodes the elements
+     * @param <TKey> The type of the keys
+     * @param <T> The type of the elements
+     * @return A read-only map of the groups by their keys, in the order they were written
+     */
+    public static <TKey, T> Map<TKey, List<T>> openGroups(Path path, ElementSerializer<TKey> keySerializer, ElementSerializer<T> serializer) {
+        var buffer = map(path, GROUPS);
+        int groupCount = buffer.getInt(16);
+        long offsetTable = buffer.getLong(20);
+        int groupTable = (int) buffer.getLong(28);
+        int keyTable = groupTable + (groupCount + 1) * Long.BYTES;
+
+        var groups = new LinkedHashMap<TKey, List<T>>(groupCount * 4 / 3 + 1);
+        for (int i = 0; i < groupCount; i++) {
+            var key = decode(buffer, buffer.getLong(keyTable + i * Long.BYTES), buffer.getLong(keyTable + (i + 1) * Long.BYTES), keySerializer);
+            int from = (int) buffer.getLong(groupTable + i * Long.BYTES);
+            int to = (int) buffer.getLong(groupTable + (i + 1) * Long.BYTES);
+            groups.put(key, new SnapshotList<>(buffer, offsetTable, from, to - from, serializer));
+        }
+
+        return Collections.unmodifiableMap(groups);
+    }
+
+    private static void writeFile(Path path, int kind, int count, int groupCount, SectionWriter sections) {
+        var absolutePath = path.toAbsolutePath();
+        Path temporaryPath = null;
+        try {
+            temporaryPath = Files.createTempFile(absolutePath.getParent(), absolutePath.getFileName().toString(), ".tmp");
+            try (var output = new SnapshotOutput(temporaryPath)) {
+                output.data.write(new byte[HEADER_SIZE]);
+                var tables = sections.write(output);
+
+                long offsetTable = output.position();
+                for (long offset : tables[0]) {
+                    output.data.writeLong(offset);
+                }
+
+                long groupTable = output.position();
+                for (int i = 1; i < tables.length; i++) {
+                    for (long value : tables[i]) {
+                        output.data.writeLong(value);
+                    }
+                }
+
+                if (output.position() > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("A snapshot file can be at most 2 GB.");
+                }
+
+                output.data.flush();
+                var header = ByteBuffer.allocate(HEADER_SIZE)
+                        .putInt(MAGIC).putInt(VERSION).putInt(kind).putInt(count).putInt(groupCount)
+                        .putLong(offsetTable).putLong(groupTable)
+                        .flip();
+                output.channel.write(header, 0);
+                output.channel.force(false);
+            }
+
+            Files.move(temporaryPath, absolutePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the snapshot file.", e);
+        } finally {
+            if (temporaryPath != null) {
+                try {
+                    Files.deleteIfExists(temporaryPath);
+                } catch (IOException e) {
+                    // The temporary file is left behind, the snapshot is not affected
+                }
+            }
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, int kind) {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(path + " is not a query snapshot.");
+            }
+
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IllegalArgumentException(path + " is not a query snapshot of version " + VERSION + ".");
+            }
+
+            if (buffer.getInt(8) != kind) {
+                throw new IllegalArgumentException(path + (kind == LIST ? " contains groups, not a list." : " contains a list, not groups."));
+            }
+
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the snapshot file.", e);
+        }
+    }
+
+    private static <T> T decode(ByteBuffer buffer, long from, long to, ElementSerializer<T> serializer) {
+        var slice = buffer.duplicate().limit((int) to).position((int) from);
+        try {
+            return serializer.read(new DataInputStream(new ByteBufferInputStream(slice)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode an element of the snapshot.", e);
+        }
+    }
+
+    /**
+     * Writes the data sections of a snapshot and returns its tables, the offset table of the elements first.
+     */
+    private interface SectionWriter {
+        long[][] write(SnapshotOutput output) throws IOException;
+    }
+
+    /**
+     * The file of a snapshot being written, which knows the position the next value is written at.
+     */
+    private static class SnapshotOutput implements Closeable {
+        private FileChannel channel;
+        private DataOutputStream data;
+        private long position;
+
+        SnapshotOutput(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.WRITE);
+            var counting = new FilterOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    position++;
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    out.write(bytes, offset, length);
+                    position += length;
+                }
+            };
+            data = new DataOutputStream(counting);
+        }
+
+        long position() {
+            return position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            data.close();
+        }
+    }
+
+    /**
+     * A read-only view of consecutive elements of a memory-mapped snapshot, which decodes an element each time it is accessed.
+     */
+    private static class SnapshotList<T> extends AbstractList<T> implements RandomAccess {
+        private ByteBuffer buffer;
+        private long offsetTable;
+        private int from;
+        private int size;
+        private ElementSerializer<T> serializer;
+
+        SnapshotList(ByteBuffer buffer, long offsetTable, int from, int size, ElementSerializer<T> serializer) {
+            this.buffer = buffer;
+            this.offsetTable = offsetTable;
+            this.from = from;
+            this.size = size;
+            this.serializer = serializer;
+        }
+
+        @Override
+        public T get(int index) {
+            Objects.checkIndex(index, size);
+            int entry = (int) offsetTable + (from + index) * Long.BYTES;
+            return decode(buffer, buffer.getLong(entry), buffer.getLong(entry + Long.BYTES), serializer);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package linq.io;
+
+/**
+ * Converts elements into rows of text, e.g. CSV or JSON lines, that are written one row per line.
+ * @param <T> The type of the elements
+ */
+public interface RowEncoder<T> {
+    /**
+     * Appends the header row, written before the first element. If nothing is appended, there is no header row.
+     * @param row The builder of the row, without the line separator
+     */
+    default void encodeHeader(StringBuilder row) {
+    }
+
+    /**
+     * Appends the row of the element.
+     * @param element The element to be encoded
+     * @param row The builder of the row, without the line separator
+     */
+    void encode(T element, StringBuilder row);
+}
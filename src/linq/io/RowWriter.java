@@ -0,0 +1,154 @@
+package linq.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Writes elements as rows of UTF-8 text while they are iterated, so the memory used does not depend on the amount of
+ * elements. The rows are collected into batches, and the encoded bytes are written through a direct buffer that is
+ * reused by every write of the same thread. The destination is flushed but not closed.
+ */
+public class RowWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int BATCH_SIZE = 8 * 1024;
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private RowWriter() {
+    }
+
+    /**
+     * Writes the elements to the channel.
+     * @param elements The iterator of the elements
+     * @param encoder The encoder that converts the elements into rows
+     * @param channel The destination channel
+     * @param <T> The type of the elements
+     * @return The amount of rows written, not counting the header
+     */
+    public static <T> long write(Iterator<T> elements, RowEncoder<T> encoder, WritableByteChannel channel) {
+        var buffer = BUFFERS.get();
+        buffer.clear();
+        var charsetEncoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        try {
+            var batch = new StringBuilder(BATCH_SIZE * 2);
+            long rows = encodeRows(elements, encoder, batch, () -> {
+                encode(charsetEncoder, CharBuffer.wrap(batch), buffer, channel);
+                batch.setLength(0);
+            });
+
+            encode(charsetEncoder, CharBuffer.wrap(batch), buffer, channel);
+            charsetEncoder.encode(CharBuffer.allocate(0), buffer, true);
+            while (charsetEncoder.flush(buffer).isOverflow()) {
+                drain(buffer, channel);
+            }
+
+            drain(buffer, channel);
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the rows.", e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Writes the elements to the stream.
+     * @param elements The iterator of the elements
+     * @param encoder The encoder that converts the elements into rows
+     * @param stream The destination stream
+     * @param <T> The type of the elements
+     * @return The amount of rows written, not counting the header
+     */
+    public static <T> long write(Iterator<T> elements, RowEncoder<T> encoder, OutputStream stream) {
+        long rows = write(elements, encoder, Channels.newChannel(stream));
+        try {
+            stream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not flush the stream.", e);
+        }
+
+        return rows;
+    }
+
+    /**
+     * Writes the elements to the writer.
+     * @param elements The iterator of the elements
+     * @param encoder The encoder that converts the elements into rows
+     * @param writer The destination writer
+     * @param <T> The type of the elements
+     * @return The amount of rows written, not counting the header
+     */
+    public static <T> long write(Iterator<T> elements, RowEncoder<T> encoder, Writer writer) {
+        try {
+            var batch = new StringBuilder(BATCH_SIZE * 2);
+            var chars = new char[BATCH_SIZE * 2];
+            BatchAction writeBatch = () -> {
+                var batchChars = batch.length() <= chars.length ? chars : new char[batch.length()];
+                batch.getChars(0, batch.length(), batchChars, 0);
+                writer.write(batchChars, 0, batch.length());
+                batch.setLength(0);
+            };
+
+            long rows = encodeRows(elements, encoder, batch, writeBatch);
+            writeBatch.execute();
+            writer.flush();
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the rows.", e);
+        }
+    }
+
+    /**
+     * Encodes the header and the rows into the batch, and passes the batch on whenever it is full.
+     */
+    private static <T> long encodeRows(Iterator<T> elements, RowEncoder<T> encoder, StringBuilder batch, BatchAction writeBatch) throws IOException {
+        encoder.encodeHeader(batch);
+        if (batch.length() > 0) {
+            batch.append('\n');
+        }
+
+        long rows = 0;
+        while (elements.hasNext()) {
+            encoder.encode(elements.next(), batch);
+            batch.append('\n');
+            rows++;
+
+            if (batch.length() >= BATCH_SIZE) {
+                writeBatch.execute();
+            }
+        }
+
+        return rows;
+    }
+
+    private static void encode(CharsetEncoder charsetEncoder, CharBuffer chars, ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        while (charsetEncoder.encode(chars, buffer, false).isOverflow()) {
+            drain(buffer, channel);
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    private interface BatchAction {
+        void execute() throws IOException;
+    }
+}
@@ -0,0 +1,137 @@
+package linq.io;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/**
+ * A temporary file that elements can be appended to and read back in the same order.
+ * The file is deleted when it is closed.
+ * @param <T> The type of the elements in the file
+ */
+public class SpillFile<T> implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private Path path;
+    private ElementSerializer<T> serializer;
+    private DataOutputStream output;
+    private int size;
+
+    public SpillFile(ElementSerializer<T> serializer) {
+        this.serializer = serializer;
+
+        try {
+            path = Files.createTempFile("linq-spill", ".tmp");
+            output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the spill file.", e);
+        }
+    }
+
+    /**
+     * Appends an element to the end of the file.
+     * @param element The element to be written
+     */
+    public void write(T element) {
+        if (output == null) {
+            throw new IllegalStateException("The spill file is already being read.");
+        }
+
+        try {
+            serializer.write(output, element);
+            size++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to the spill file.", e);
+        }
+    }
+
+    /**
+     * Returns the number of elements written to the file.
+     * @return The number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finishes writing and returns an iterator that reads the elements back in the order they were written.
+     * The file is deleted when the iterator is exhausted or closed.
+     * @return An iterator over the elements of the file
+     */
+    public CloseableIterator<T> read() {
+        try {
+            finishWriting();
+            var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+            return new SpillFileIterator(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the spill file.", e);
+        }
+    }
+
+    private void finishWriting() throws IOException {
+        if (output != null) {
+            output.close();
+            output = null;
+        }
+    }
+
+    /**
+     * Closes the file and deletes it from the disk.
+     */
+    @Override
+    public void close() {
+        try {
+            finishWriting();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete the spill file.", e);
+        }
+    }
+
+    private class SpillFileIterator implements CloseableIterator<T> {
+        private DataInputStream input;
+        private int remaining;
+
+        SpillFileIterator(DataInputStream input) {
+            this.input = input;
+            this.remaining = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (remaining == 0) {
+                close();
+            }
+
+            return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("There are no more elements in the spill file.");
+            }
+
+            try {
+                remaining--;
+                return serializer.read(input);
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException("Could not read the spill file.", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            remaining = 0;
+            try {
+                input.close();
+            } catch (IOException e) {
+                // The file is deleted anyway
+            }
+
+            SpillFile.this.close();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package linq.lambda;
+
+/**
+ * Encapsulates a method which has no parameters and a return value.
+ * @param <TResult> The type of the return value
+ */
+public interface Func0<TResult> {
+    /**
+     * The encapsulated function.
+     * @return The return value
+     */
+    TResult execute();
+}
@@ -12,4 +12,15 @@ public interface Func1<T1, TResult> {
      * @return The return value
      */
     TResult execute(T1 param1);
+
+    /**
+     * Returns a function that returns its parameter. Always returns the same instance, so orderings by the elements
+     * themselves can be recognized.
+     * @param <T> The type of the parameter
+     * @return The identity function
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Func1<T, T> identity() {
+        return (Func1<T, T>) (Func1<?, ?>) Identity.INSTANCE;
+    }
 }
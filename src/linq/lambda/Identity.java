@@ -0,0 +1,16 @@
+package linq.lambda;
+
+/**
+ * The function returned by Func1.identity().
+ */
+class Identity implements Func1<Object, Object> {
+    static final Identity INSTANCE = new Identity();
+
+    private Identity() {
+    }
+
+    @Override
+    public Object execute(Object param1) {
+        return param1;
+    }
+}
@@ -0,0 +1,49 @@
+package linq.lambda;
+
+import java.util.function.Predicate;
+
+/**
+ * Encapsulates a condition which has 1 parameter and returns a primitive boolean, so the result is not boxed.
+ * Can also be used where a Predicate is expected.
+ * @param <T1> The type of the parameter
+ */
+public interface Predicate1<T1> extends Func1<T1, Boolean>, Predicate<T1> {
+    /**
+     * Calls the primitive condition and boxes its result.
+     * @param param1 The parameter of the condition
+     * @return The return value
+     */
+    @Override
+    default Boolean execute(T1 param1) {
+        return test(param1);
+    }
+
+    @Override
+    default Predicate1<T1> negate() {
+        return param1 -> !test(param1);
+    }
+
+    @Override
+    default Predicate1<T1> and(Predicate<? super T1> other) {
+        return param1 -> test(param1) && other.test(param1);
+    }
+
+    @Override
+    default Predicate1<T1> or(Predicate<? super T1> other) {
+        return param1 -> test(param1) || other.test(param1);
+    }
+
+    /**
+     * Returns the condition as a Predicate1. If it already is one, it is returned as it is, otherwise it is wrapped.
+     * @param condition The condition
+     * @param <T> The type of the parameter
+     * @return The condition as a Predicate1
+     */
+    static <T> Predicate1<T> of(Func1<T, Boolean> condition) {
+        if (condition instanceof Predicate1) {
+            return (Predicate1<T>) condition;
+        }
+
+        return condition::execute;
+    }
+}
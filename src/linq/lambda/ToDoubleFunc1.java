@@ -0,0 +1,20 @@
+package linq.lambda;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Encapsulates a method which has 1 parameter and returns a primitive double, so the result is not boxed.
+ * Can also be used where a ToDoubleFunction is expected.
+ * @param <T1> The type of the parameter
+ */
+public interface ToDoubleFunc1<T1> extends Func1<T1, Double>, ToDoubleFunction<T1> {
+    /**
+     * Calls the primitive function and boxes its result.
+     * @param param1 The parameter of the function
+     * @return The return value
+     */
+    @Override
+    default Double execute(T1 param1) {
+        return applyAsDouble(param1);
+    }
+}
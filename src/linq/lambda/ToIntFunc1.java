@@ -0,0 +1,20 @@
+package linq.lambda;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Encapsulates a method which has 1 parameter and returns a primitive int, so the result is not boxed.
+ * Can also be used where a ToIntFunction is expected.
+ * @param <T1> The type of the parameter
+ */
+public interface ToIntFunc1<T1> extends Func1<T1, Integer>, ToIntFunction<T1> {
+    /**
+     * Calls the primitive function and boxes its result.
+     * @param param1 The parameter of the function
+     * @return The return value
+     */
+    @Override
+    default Integer execute(T1 param1) {
+        return applyAsInt(param1);
+    }
+}
@@ -0,0 +1,20 @@
+package linq.lambda;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Encapsulates a method which has 1 parameter and returns a primitive long, so the result is not boxed.
+ * Can also be used where a ToLongFunction is expected.
+ * @param <T1> The type of the parameter
+ */
+public interface ToLongFunc1<T1> extends Func1<T1, Long>, ToLongFunction<T1> {
+    /**
+     * Calls the primitive function and boxes its result.
+     * @param param1 The parameter of the function
+     * @return The return value
+     */
+    @Override
+    default Long execute(T1 param1) {
+        return applyAsLong(param1);
+    }
+}
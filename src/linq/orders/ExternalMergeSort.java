@@ -0,0 +1,178 @@
+package linq.orders;
+
+import linq.io.CloseableIterator;
+import linq.io.ElementSerializer;
+import linq.io.SpillFile;
+
+import java.util.*;
+
+/**
+ * Sorts elements that do not fit into memory. The elements are split into sorted runs of at most memoryBudget
+ * elements that are written to temporary files, and the runs are merged lazily while the result is iterated.
+ * @param <TSource> The type of the sorted elements
+ */
+public class ExternalMergeSort<TSource> {
+    private Comparator<TSource> comparator;
+    private int memoryBudget;
+    private ElementSerializer<TSource> serializer;
+
+    public ExternalMergeSort(Comparator<TSource> comparator, int memoryBudget, ElementSerializer<TSource> serializer) {
+        if (memoryBudget < 1) {
+            throw new IllegalArgumentException("The memory budget must be at least 1 element.");
+        }
+
+        this.comparator = comparator;
+        this.memoryBudget = memoryBudget;
+        this.serializer = serializer;
+    }
+
+    /**
+     * Returns the maximum amount of elements that are sorted in memory at a time.
+     * @return The memory budget
+     */
+    public int getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Sorts the elements. Elements that compare equal keep their original order.
+     * @param elements The elements to be sorted
+     * @return An iterator that merges the sorted runs while iterating
+     */
+    public CloseableIterator<TSource> sort(Iterable<TSource> elements) {
+        var runs = new ArrayList<SpillFile<TSource>>();
+        var buffer = new ArrayList<TSource>(Math.min(memoryBudget, 1024));
+
+        try {
+            for (var element : elements) {
+                buffer.add(element);
+                if (buffer.size() == memoryBudget) {
+                    runs.add(writeRun(buffer));
+                    buffer.clear();
+                }
+            }
+
+            if (runs.isEmpty()) {
+                buffer.sort(comparator);
+                return new BufferIterator<>(buffer.iterator());
+            }
+
+            if (!buffer.isEmpty()) {
+                runs.add(writeRun(buffer));
+            }
+        } catch (RuntimeException e) {
+            for (var run : runs) {
+                run.close();
+            }
+
+            throw e;
+        }
+
+        return new MergeIterator(runs);
+    }
+
+    private SpillFile<TSource> writeRun(ArrayList<TSource> buffer) {
+        buffer.sort(comparator);
+
+        var run = new SpillFile<>(serializer);
+        for (var element : buffer) {
+            run.write(element);
+        }
+
+        return run;
+    }
+
+    private static class BufferIterator<TSource> implements CloseableIterator<TSource> {
+        private Iterator<TSource> iterator;
+
+        BufferIterator(Iterator<TSource> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public TSource next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            iterator = Collections.emptyIterator();
+        }
+    }
+
+    /**
+     * The head of a sorted run. The index of the run is used to keep equal elements in their original order.
+     */
+    private static class RunHead<TSource> {
+        private CloseableIterator<TSource> run;
+        private int index;
+        private TSource current;
+
+        RunHead(CloseableIterator<TSource> run, int index) {
+            this.run = run;
+            this.index = index;
+        }
+
+        boolean advance() {
+            if (run.hasNext()) {
+                current = run.next();
+                return true;
+            }
+
+            return false;
+        }
+    }
+
+    private class MergeIterator implements CloseableIterator<TSource> {
+        private List<SpillFile<TSource>> runs;
+        private PriorityQueue<RunHead<TSource>> heads;
+
+        MergeIterator(List<SpillFile<TSource>> runs) {
+            this.runs = runs;
+            this.heads = new PriorityQueue<>(runs.size(), (head, otherHead) -> {
+                int compareResult = comparator.compare(head.current, otherHead.current);
+                return compareResult != 0 ? compareResult : Integer.compare(head.index, otherHead.index);
+            });
+
+            for (int i = 0; i < runs.size(); i++) {
+                var head = new RunHead<>(runs.get(i).read(), i);
+                if (head.advance()) {
+                    heads.add(head);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public TSource next() {
+            var head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException("There are no more elements.");
+            }
+
+            var element = head.current;
+            if (head.advance()) {
+                heads.add(head);
+            }
+
+            return element;
+        }
+
+        @Override
+        public void close() {
+            heads.clear();
+            for (var run : runs) {
+                run.close();
+            }
+        }
+    }
+}
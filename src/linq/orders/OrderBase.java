@@ -4,6 +4,9 @@ import linq.lambda.Func1;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Base class for ordering elements of an OrderedQueryBuilder.
@@ -20,37 +23,70 @@ public abstract class OrderBase<TSource, TProperty> {
     }
 
     /**
-     * Executes the ordering on the collection received as parameter.
-     * @param unorderedCollection The unordered collection
-     * @return The ordered collection
+     * Returns the direction of the ordering.
+     * @return The direction
      */
-    public ArrayList<TSource> execute(Collection<TSource> unorderedCollection) {
-        var orderedCollection = new ArrayList<TSource>();
+    public Direction getDirection() {
+        return direction;
+    }
 
-        for (var element : unorderedCollection) {
-            var index = findIndex(orderedCollection, element);
-            orderedCollection.add(index, element);
-        }
+    /**
+     * Checks whether this ordering orders by the given selector (the same instance) and comparator.
+     * @param selector The selector
+     * @param comparator The comparator, or null for the natural ordering of Comparable properties
+     * @return Whether the ordering uses the given selector and comparator
+     */
+    public boolean ordersBy(Func1<?, ?> selector, Comparator<?> comparator) {
+        return this.selector == selector && Objects.equals(getComparator(), comparator);
+    }
 
-        return orderedCollection;
+    /**
+     * Checks whether the other ordering orders the elements the same way as this one.
+     * @param other The other ordering
+     * @return Whether the orderings have the same selector, comparator and direction
+     */
+    public boolean isSameOrdering(OrderBase<?, ?> other) {
+        return other.ordersBy(selector, getComparator()) && direction == other.direction;
     }
 
-    private int findIndex(ArrayList<TSource> orderedCollection, TSource element) {
-        int index;
-        for (index = 0; index < orderedCollection.size(); index++) {
-            int compareResult = compare(orderedCollection.get(index), element);
+    /**
+     * Returns the comparator that compares the selected properties, or null if their natural ordering is used.
+     * @return The comparator
+     */
+    protected abstract Comparator<TProperty> getComparator();
+
+    /**
+     * Executes the ordering on the collection received as parameter. Elements with equal properties keep their order.
+     * @param unorderedCollection The unordered collection
+     * @return The ordered collection
+     */
+    public ArrayList<TSource> execute(Collection<TSource> unorderedCollection) {
+        return new Sorter<>(List.of(this)).sort(new ArrayList<>(unorderedCollection));
+    }
 
-            if (compareResult > 0 && direction == Direction.ASCENDING) {
-                return index;
-            }
+    /**
+     * Compares two elements by their selected property, taking the direction of the ordering into account.
+     * @param element The first element
+     * @param otherElement The second element
+     * @return A negative number if the first element comes first, a positive number if the second does, 0 if they are equal
+     */
+    public int compareElements(TSource element, TSource otherElement) {
+        int compareResult = compare(element, otherElement);
+        return direction == Direction.ASCENDING ? compareResult : -compareResult;
+    }
 
-            if (compareResult < 0 && direction == Direction.DESCENDING) {
-                return index;
-            }
-        }
+    /**
+     * Compares two properties that were selected by the selector of this ordering, taking the direction into account.
+     */
+    @SuppressWarnings("unchecked")
+    int compareKeys(Object key, Object otherKey) {
+        int compareResult = compareProperties((TProperty) key, (TProperty) otherKey);
+        return direction == Direction.ASCENDING ? compareResult : -compareResult;
+    }
 
-        return index;
+    protected int compare(TSource orderedListElement, TSource element) {
+        return compareProperties(selector.execute(orderedListElement), selector.execute(element));
     }
 
-    protected abstract int compare(TSource orderedListElement, TSource element);
+    protected abstract int compareProperties(TProperty property, TProperty otherProperty);
 }
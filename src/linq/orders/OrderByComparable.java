@@ -2,6 +2,8 @@ package linq.orders;
 
 import linq.lambda.Func1;
 
+import java.util.Comparator;
+
 /**
  * An ordering that uses Comparable property for comparing the elements.
  * @param <TSource> The type of the element in the QueryBuilder
@@ -14,8 +16,13 @@ public class OrderByComparable<TSource, TProperty extends Comparable<TProperty>>
     }
 
     @Override
-    protected int compare(TSource orderedListElement, TSource element) {
-        return selector.execute(orderedListElement).compareTo(selector.execute(element));
+    protected int compareProperties(TProperty property, TProperty otherProperty) {
+        return property.compareTo(otherProperty);
+    }
+
+    @Override
+    protected Comparator<TProperty> getComparator() {
+        return null;
     }
 
 }
@@ -18,7 +18,12 @@ public class OrderByComparator<TSource, TProperty> extends OrderBase<TSource, TP
     }
 
     @Override
-    protected int compare(TSource orderedListElement, TSource element) {
-        return comparator.compare(selector.execute(orderedListElement), selector.execute(element));
+    protected int compareProperties(TProperty property, TProperty otherProperty) {
+        return comparator.compare(property, otherProperty);
+    }
+
+    @Override
+    protected Comparator<TProperty> getComparator() {
+        return comparator;
     }
 }
@@ -0,0 +1,35 @@
+package linq.orders;
+
+import linq.lambda.ToDoubleFunc1;
+
+import java.util.Comparator;
+
+/**
+ * An ordering by a primitive double property. Elements that are compared directly, e.g. by the bounded heap of take,
+ * are compared by their primitive properties without boxing them. The Sorter still selects the properties into boxed
+ * keys, once per element.
+ * @param <TSource> The type of the element in the QueryBuilder
+ */
+public class OrderByDouble<TSource> extends OrderBase<TSource, Double> {
+    private ToDoubleFunc1<TSource> doubleSelector;
+
+    public OrderByDouble(ToDoubleFunc1<TSource> selector, Direction direction) {
+        super(selector, direction);
+        this.doubleSelector = selector;
+    }
+
+    @Override
+    protected int compare(TSource orderedListElement, TSource element) {
+        return Double.compare(doubleSelector.applyAsDouble(orderedListElement), doubleSelector.applyAsDouble(element));
+    }
+
+    @Override
+    protected int compareProperties(Double property, Double otherProperty) {
+        return Double.compare(property, otherProperty);
+    }
+
+    @Override
+    protected Comparator<Double> getComparator() {
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package linq.orders;
+
+import linq.lambda.ToIntFunc1;
+
+import java.util.Comparator;
+
+/**
+ * An ordering by a primitive int property. Elements that are compared directly, e.g. by the bounded heap of take,
+ * are compared by their primitive properties without boxing them. The Sorter still selects the properties into boxed
+ * keys, once per element.
+ * @param <TSource> The type of the element in the QueryBuilder
+ */
+public class OrderByInt<TSource> extends OrderBase<TSource, Integer> {
+    private ToIntFunc1<TSource> intSelector;
+
+    public OrderByInt(ToIntFunc1<TSource> selector, Direction direction) {
+        super(selector, direction);
+        this.intSelector = selector;
+    }
+
+    @Override
+    protected int compare(TSource orderedListElement, TSource element) {
+        return Integer.compare(intSelector.applyAsInt(orderedListElement), intSelector.applyAsInt(element));
+    }
+
+    @Override
+    protected int compareProperties(Integer property, Integer otherProperty) {
+        return Integer.compare(property, otherProperty);
+    }
+
+    @Override
+    protected Comparator<Integer> getComparator() {
+        return null;
+    }
+}
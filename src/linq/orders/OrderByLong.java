@@ -0,0 +1,35 @@
+package linq.orders;
+
+import linq.lambda.ToLongFunc1;
+
+import java.util.Comparator;
+
+/**
+ * An ordering by a primitive long property. Elements that are compared directly, e.g. by the bounded heap of take,
+ * are compared by their primitive properties without boxing them. The Sorter still selects the properties into boxed
+ * keys, once per element.
+ * @param <TSource> The type of the element in the QueryBuilder
+ */
+public class OrderByLong<TSource> extends OrderBase<TSource, Long> {
+    private ToLongFunc1<TSource> longSelector;
+
+    public OrderByLong(ToLongFunc1<TSource> selector, Direction direction) {
+        super(selector, direction);
+        this.longSelector = selector;
+    }
+
+    @Override
+    protected int compare(TSource orderedListElement, TSource element) {
+        return Long.compare(longSelector.applyAsLong(orderedListElement), longSelector.applyAsLong(element));
+    }
+
+    @Override
+    protected int compareProperties(Long property, Long otherProperty) {
+        return Long.compare(property, otherProperty);
+    }
+
+    @Override
+    protected Comparator<Long> getComparator() {
+        return null;
+    }
+}
@@ -0,0 +1,217 @@
+package linq.orders;
+
+import java.util.List;
+
+/**
+ * A stable LSD radix sort over precomputed properties. The orderings are processed from the least significant to the
+ * most significant, and each property is sorted digit by digit with a counting sort, so the result is the same as
+ * sorting by the whole chain of orderings.
+ */
+class RadixSort {
+    private static final int MAX_STRING_LENGTH = 32;
+    private static final int BYTE_BUCKETS = 256;
+    private static final int ASCII_BUCKETS = 129;
+
+    private RadixSort() {
+    }
+
+    /**
+     * Checks whether every ordering uses the natural ordering of properties that the radix sort can handle:
+     * integral numbers, characters, booleans, enums of one type, or ASCII strings that are not too long.
+     */
+    static boolean isApplicable(List<? extends OrderBase<?, ?>> orders, Object[][] keys) {
+        for (int i = 0; i < orders.size(); i++) {
+            if (orders.get(i).getComparator() != null || kindOf(keys[i]) == Kind.NONE) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the indices of the elements in sorted order.
+     */
+    static int[] sort(List<? extends OrderBase<?, ?>> orders, Object[][] keys, int size) {
+        var permutation = new Permutation(size);
+        for (int i = orders.size() - 1; i >= 0; i--) {
+            boolean descending = orders.get(i).getDirection() == Direction.DESCENDING;
+            var column = keys[i];
+            switch (kindOf(column)) {
+                case LONG:
+                    sortLongs(permutation, column, descending);
+                    break;
+                case STRING:
+                    sortStrings(permutation, column, descending);
+                    break;
+                default:
+                    sortInts(permutation, column, descending);
+                    break;
+            }
+        }
+
+        return permutation.indices;
+    }
+
+    private enum Kind {
+        INT, LONG, STRING, NONE
+    }
+
+    private static Kind kindOf(Object[] column) {
+        if (column.length == 0) {
+            return Kind.INT;
+        }
+
+        if (column[0] == null) {
+            return Kind.NONE;
+        }
+
+        var type = column[0].getClass();
+        for (var key : column) {
+            if (key == null || key.getClass() != type) {
+                return Kind.NONE;
+            }
+        }
+
+        if (type == Integer.class || type == Short.class || type == Byte.class || type == Character.class
+                || type == Boolean.class || column[0] instanceof Enum) {
+            return Kind.INT;
+        }
+
+        if (type == Long.class) {
+            return Kind.LONG;
+        }
+
+        if (type == String.class) {
+            for (var key : column) {
+                var string = (String) key;
+                if (string.length() > MAX_STRING_LENGTH) {
+                    return Kind.NONE;
+                }
+
+                for (int i = 0; i < string.length(); i++) {
+                    if (string.charAt(i) >= ASCII_BUCKETS - 1) {
+                        return Kind.NONE;
+                    }
+                }
+            }
+
+            return Kind.STRING;
+        }
+
+        return Kind.NONE;
+    }
+
+    private static int intValue(Object key) {
+        if (key instanceof Character) {
+            return (Character) key;
+        }
+
+        if (key instanceof Boolean) {
+            return (Boolean) key ? 1 : 0;
+        }
+
+        if (key instanceof Enum) {
+            return ((Enum<?>) key).ordinal();
+        }
+
+        return ((Number) key).intValue();
+    }
+
+    private static void sortInts(Permutation permutation, Object[] column, boolean descending) {
+        var values = new int[column.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = intValue(column[i]) ^ Integer.MIN_VALUE;
+        }
+
+        for (int shift = 0; shift < Integer.SIZE; shift += 8) {
+            for (int i = 0; i < values.length; i++) {
+                permutation.digits[i] = (values[permutation.indices[i]] >>> shift) & 0xFF;
+            }
+
+            permutation.countingSort(BYTE_BUCKETS, descending);
+        }
+    }
+
+    private static void sortLongs(Permutation permutation, Object[] column, boolean descending) {
+        var values = new long[column.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (Long) column[i] ^ Long.MIN_VALUE;
+        }
+
+        for (int shift = 0; shift < Long.SIZE; shift += 8) {
+            for (int i = 0; i < values.length; i++) {
+                permutation.digits[i] = (int) (values[permutation.indices[i]] >>> shift) & 0xFF;
+            }
+
+            permutation.countingSort(BYTE_BUCKETS, descending);
+        }
+    }
+
+    /**
+     * Sorts the strings character by character from the last position to the first. A missing character is smaller
+     * than any character, so a string comes before the longer strings it is a prefix of.
+     */
+    private static void sortStrings(Permutation permutation, Object[] column, boolean descending) {
+        int maxLength = 0;
+        for (var key : column) {
+            maxLength = Math.max(maxLength, ((String) key).length());
+        }
+
+        for (int position = maxLength - 1; position >= 0; position--) {
+            for (int i = 0; i < column.length; i++) {
+                var string = (String) column[permutation.indices[i]];
+                permutation.digits[i] = position < string.length() ? string.charAt(position) + 1 : 0;
+            }
+
+            permutation.countingSort(ASCII_BUCKETS, descending);
+        }
+    }
+
+    /**
+     * The current order of the elements, and the digit of each position for the next counting sort pass.
+     */
+    private static class Permutation {
+        private int[] indices;
+        private int[] buffer;
+        private int[] digits;
+
+        Permutation(int size) {
+            indices = Sorter.identity(size);
+            buffer = new int[size];
+            digits = new int[size];
+        }
+
+        /**
+         * Stably reorders the indices by their digits. Passes where every digit is the same are skipped.
+         */
+        void countingSort(int buckets, boolean descending) {
+            var counts = new int[buckets + 1];
+            for (int digit : digits) {
+                counts[digit]++;
+            }
+
+            for (int count : counts) {
+                if (count == indices.length) {
+                    return;
+                }
+            }
+
+            int position = 0;
+            for (int i = 0; i < buckets; i++) {
+                int bucket = descending ? buckets - 1 - i : i;
+                int count = counts[bucket];
+                counts[bucket] = position;
+                position += count;
+            }
+
+            for (int i = 0; i < indices.length; i++) {
+                buffer[counts[digits[i]]++] = indices[i];
+            }
+
+            var swap = indices;
+            indices = buffer;
+            buffer = swap;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package linq.orders;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Finds the k-th smallest value of an array without sorting the whole array (introselect). The array is partitioned
+ * around a median of 3 pivot into smaller, equal and larger values, and only the part containing the k-th value is
+ * partitioned further, which takes linear time on average. If the partitioning takes too many rounds, the remaining
+ * part is sorted, so the worst case is O(n log n). The arrays are reordered in place.
+ */
+public class Selection {
+    private static final int SORT_THRESHOLD = 16;
+
+    private Selection() {
+    }
+
+    /**
+     * Finds the k-th smallest value. Afterwards no value before index k is larger, and no value after it is smaller.
+     * @param values The values, which are reordered
+     * @param k The 0 based index of the value in ascending order
+     * @return The k-th smallest value
+     */
+    public static int select(int[] values, int k) {
+        validateIndex(values.length, k);
+
+        int from = 0;
+        int to = values.length;
+        int depthLimit = depthLimit(values.length);
+        while (to - from > SORT_THRESHOLD && depthLimit-- > 0) {
+            int pivot = medianOf3(values[from], values[(from + to) >>> 1], values[to - 1]);
+            int less = from;
+            int greater = to;
+            int i = from;
+            while (i < greater) {
+                int value = values[i];
+                if (value < pivot) {
+                    values[i++] = values[less];
+                    values[less++] = value;
+                } else if (value > pivot) {
+                    values[i] = values[--greater];
+                    values[greater] = value;
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < less) {
+                to = less;
+            } else if (k >= greater) {
+                from = greater;
+            } else {
+                return pivot;
+            }
+        }
+
+        Arrays.sort(values, from, to);
+        return values[k];
+    }
+
+    /**
+     * Finds the k-th smallest value. Afterwards no value before index k is larger, and no value after it is smaller.
+     * The values can not be NaN.
+     * @param values The values, which are reordered
+     * @param k The 0 based index of the value in ascending order
+     * @return The k-th smallest value
+     */
+    public static double select(double[] values, int k) {
+        validateIndex(values.length, k);
+
+        int from = 0;
+        int to = values.length;
+        int depthLimit = depthLimit(values.length);
+        while (to - from > SORT_THRESHOLD && depthLimit-- > 0) {
+            double pivot = medianOf3(values[from], values[(from + to) >>> 1], values[to - 1]);
+            int less = from;
+            int greater = to;
+            int i = from;
+            while (i < greater) {
+                double value = values[i];
+                if (value < pivot) {
+                    values[i++] = values[less];
+                    values[less++] = value;
+                } else if (value > pivot) {
+                    values[i] = values[--greater];
+                    values[greater] = value;
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < less) {
+                to = less;
+            } else if (k >= greater) {
+                from = greater;
+            } else {
+                return pivot;
+            }
+        }
+
+        Arrays.sort(values, from, to);
+        return values[k];
+    }
+
+    /**
+     * Finds the k-th smallest value by the comparator. Afterwards no value before index k is larger, and no value
+     * after it is smaller.
+     * @param values The values, which are reordered
+     * @param k The 0 based index of the value in ascending order
+     * @param comparator The comparator that compares the values
+     * @param <T> The type of the values
+     * @return The k-th smallest value
+     */
+    public static <T> T select(T[] values, int k, Comparator<? super T> comparator) {
+        validateIndex(values.length, k);
+
+        int from = 0;
+        int to = values.length;
+        int depthLimit = depthLimit(values.length);
+        while (to - from > SORT_THRESHOLD && depthLimit-- > 0) {
+            T pivot = medianOf3(values[from], values[(from + to) >>> 1], values[to - 1], comparator);
+            int less = from;
+            int greater = to;
+            int i = from;
+            while (i < greater) {
+                T value = values[i];
+                int compareResult = comparator.compare(value, pivot);
+                if (compareResult < 0) {
+                    values[i++] = values[less];
+                    values[less++] = value;
+                } else if (compareResult > 0) {
+                    values[i] = values[--greater];
+                    values[greater] = value;
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < less) {
+                to = less;
+            } else if (k >= greater) {
+                from = greater;
+            } else {
+                return values[k];
+            }
+        }
+
+        Arrays.sort(values, from, to, comparator);
+        return values[k];
+    }
+
+    private static void validateIndex(int length, int k) {
+        if (k < 0 || k >= length) {
+            throw new IllegalArgumentException("The index must be a natural number that is less than the amount of values.");
+        }
+    }
+
+    private static int depthLimit(int length) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(length));
+    }
+
+    private static int medianOf3(int a, int b, int c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static double medianOf3(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static <T> T medianOf3(T a, T b, T c, Comparator<? super T> comparator) {
+        if (comparator.compare(a, b) > 0) {
+            T swap = a;
+            a = b;
+            b = swap;
+        }
+
+        if (comparator.compare(b, c) <= 0) {
+            return b;
+        }
+
+        return comparator.compare(a, c) >= 0 ? a : c;
+    }
+}
@@ -0,0 +1,202 @@
+package linq.orders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts elements by a chain of orderings. The selected properties are computed once per element and ordering before
+ * sorting. If every ordering uses the natural ordering of integral, enum, boolean or ASCII string properties, a stable
+ * radix sort is used, otherwise a stable merge sort that compares the precomputed properties. The merge sort can run
+ * in parallel on a ForkJoinPool above a size threshold.
+ * @param <TSource> The type of the sorted elements
+ */
+public class Sorter<TSource> {
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private List<OrderBase<TSource, ?>> orders;
+    private ForkJoinPool pool;
+    private int parallelThreshold;
+
+    /**
+     * Creates a sorter for the given orderings that sorts on the calling thread.
+     * @param orders The orderings, the most significant first
+     */
+    public Sorter(List<OrderBase<TSource, ?>> orders) {
+        this.orders = orders;
+    }
+
+    /**
+     * Creates a sorter for the given orderings that runs the merge sort on the given pool if there are at least
+     * parallelThreshold elements. The properties are still selected on the calling thread.
+     * @param orders The orderings, the most significant first
+     * @param pool The pool that executes the parallel sort
+     * @param parallelThreshold The minimum amount of elements that are sorted in parallel
+     */
+    public Sorter(List<OrderBase<TSource, ?>> orders, ForkJoinPool pool, int parallelThreshold) {
+        if (parallelThreshold < 2) {
+            throw new IllegalArgumentException("The parallel threshold must be at least 2.");
+        }
+
+        this.orders = orders;
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Sorts the elements. Elements that are equal in every ordering keep their original order.
+     * @param elements The elements to be sorted
+     * @return A new list containing the sorted elements
+     */
+    public ArrayList<TSource> sort(List<TSource> elements) {
+        var keys = selectKeys(elements);
+
+        var permutation = RadixSort.isApplicable(orders, keys)
+                ? RadixSort.sort(orders, keys, elements.size())
+                : mergeSort(keys, elements.size());
+
+        var sortedElements = new ArrayList<TSource>(elements.size());
+        for (int index : permutation) {
+            sortedElements.add(elements.get(index));
+        }
+
+        return sortedElements;
+    }
+
+    private Object[][] selectKeys(List<TSource> elements) {
+        var keys = new Object[orders.size()][];
+        for (int i = 0; i < orders.size(); i++) {
+            var selector = orders.get(i).selector;
+            var column = new Object[elements.size()];
+            for (int j = 0; j < column.length; j++) {
+                column[j] = selector.execute(elements.get(j));
+            }
+
+            keys[i] = column;
+        }
+
+        return keys;
+    }
+
+    /**
+     * Compares two elements, given by their indices, by their precomputed properties.
+     */
+    private int compareIndices(Object[][] keys, int index, int otherIndex) {
+        for (int i = 0; i < keys.length; i++) {
+            int compareResult = orders.get(i).compareKeys(keys[i][index], keys[i][otherIndex]);
+            if (compareResult != 0) {
+                return compareResult;
+            }
+        }
+
+        return 0;
+    }
+
+    private int[] mergeSort(Object[][] keys, int size) {
+        var permutation = identity(size);
+        var buffer = new int[size];
+
+        if (pool != null && size >= parallelThreshold) {
+            int sequentialSize = Math.max(INSERTION_SORT_THRESHOLD, size / (pool.getParallelism() * 4));
+            pool.invoke(new MergeSortTask(keys, permutation, buffer, 0, size, sequentialSize));
+        } else {
+            mergeSort(keys, permutation, buffer, 0, size);
+        }
+
+        return permutation;
+    }
+
+    /**
+     * Sorts the indices between from (inclusive) and to (exclusive) with a stable top-down merge sort.
+     */
+    private void mergeSort(Object[][] keys, int[] indices, int[] buffer, int from, int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(keys, indices, from, to);
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        mergeSort(keys, indices, buffer, from, middle);
+        mergeSort(keys, indices, buffer, middle, to);
+        merge(keys, indices, buffer, from, middle, to);
+    }
+
+    /**
+     * Merges the sorted ranges [from, middle) and [middle, to). Of equal elements the one from the first range comes first.
+     */
+    private void merge(Object[][] keys, int[] indices, int[] buffer, int from, int middle, int to) {
+        if (compareIndices(keys, indices[middle - 1], indices[middle]) <= 0) {
+            return;
+        }
+
+        System.arraycopy(indices, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right == to || (left < middle && compareIndices(keys, buffer[left], buffer[right]) <= 0)) {
+                indices[i] = buffer[left++];
+            } else {
+                indices[i] = buffer[right++];
+            }
+        }
+    }
+
+    private void insertionSort(Object[][] keys, int[] indices, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int index = indices[i];
+            int j = i - 1;
+            while (j >= from && compareIndices(keys, indices[j], index) > 0) {
+                indices[j + 1] = indices[j];
+                j--;
+            }
+
+            indices[j + 1] = index;
+        }
+    }
+
+    /**
+     * Sorts the two halves of a range in parallel, then merges them. Each task works on its own range of the arrays.
+     */
+    private class MergeSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private Object[][] keys;
+        private int[] indices;
+        private int[] buffer;
+        private int from;
+        private int to;
+        private int sequentialSize;
+
+        MergeSortTask(Object[][] keys, int[] indices, int[] buffer, int from, int to, int sequentialSize) {
+            this.keys = keys;
+            this.indices = indices;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.sequentialSize = sequentialSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= sequentialSize) {
+                mergeSort(keys, indices, buffer, from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new MergeSortTask(keys, indices, buffer, from, middle, sequentialSize),
+                    new MergeSortTask(keys, indices, buffer, middle, to, sequentialSize));
+            merge(keys, indices, buffer, from, middle, to);
+        }
+    }
+
+    static int[] identity(int size) {
+        var indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+
+        return indices;
+    }
+}
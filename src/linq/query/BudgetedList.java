@@ -0,0 +1,31 @@
+package linq.query;
+
+import java.util.ArrayList;
+
+/**
+ * A result list that reserves memory for its elements from a reservation in chunks as it grows, so an operation
+ * that produces too many results fails before the list outgrows the budget.
+ * @param <TSource> The type of the elements
+ */
+class BudgetedList<TSource> extends ArrayList<TSource> {
+    private static final long serialVersionUID = 1L;
+    private static final int MIN_CHUNK = 64;
+
+    private MemoryBudget.Reservation reservation;
+    private int reservedElements;
+
+    BudgetedList(MemoryBudget.Reservation reservation) {
+        this.reservation = reservation;
+    }
+
+    @Override
+    public boolean add(TSource element) {
+        if (size() == reservedElements) {
+            int chunk = Math.max(MIN_CHUNK, reservedElements / 2);
+            reservation.grow(chunk * MemoryBudget.REFERENCE_BYTES);
+            reservedElements += chunk;
+        }
+
+        return super.add(element);
+    }
+}
@@ -0,0 +1,132 @@
+package linq.query;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * Recycles the temporary lists and hash sets of query operations. Each operation of a query builds its result in a
+ * temporary list, which is copied into the next QueryBuilder and then dropped, and operations like selectDistinct and
+ * the set operations fill a hash set they drop right after. With an arena, these buffers are cleared and kept for the
+ * next operation, keeping their arrays and hash tables, so a chain of operations allocates them only once.
+ * An arena is not thread-safe: an explicit arena must only be used by one thread at a time, and planners that use
+ * the thread-local arenas give each thread its own.
+ */
+public class BufferArena {
+    private static final ThreadLocal<BufferArena> THREAD_ARENA = ThreadLocal.withInitial(BufferArena::new);
+
+    private int maxPooledBuffers;
+    private int maxRetainedSize;
+    private ArrayDeque<ArrayList<?>> lists;
+    private ArrayDeque<HashSet<?>> sets;
+    private long borrowCount;
+    private long reuseCount;
+
+    /**
+     * Creates an arena that keeps at most 8 lists and 8 hash sets, of at most 1 million elements each.
+     */
+    public BufferArena() {
+        this(8, 1 << 20);
+    }
+
+    /**
+     * Creates an arena.
+     * @param maxPooledBuffers The maximum amount of lists, and also of hash sets, that are kept
+     * @param maxRetainedSize The maximum amount of elements a returned buffer may have held to be kept, larger ones are
+     *                        left to the garbage collector, so a single large query does not keep its memory forever
+     */
+    public BufferArena(int maxPooledBuffers, int maxRetainedSize) {
+        if (maxPooledBuffers < 1 || maxRetainedSize < 1) {
+            throw new IllegalArgumentException("The arena must keep at least 1 buffer of at least 1 element.");
+        }
+
+        this.maxPooledBuffers = maxPooledBuffers;
+        this.maxRetainedSize = maxRetainedSize;
+        lists = new ArrayDeque<>();
+        sets = new ArrayDeque<>();
+    }
+
+    /**
+     * Returns the arena of the current thread.
+     * @return The thread-local arena
+     */
+    public static BufferArena forCurrentThread() {
+        return THREAD_ARENA.get();
+    }
+
+    /**
+     * Returns how many buffers the operations asked for.
+     * @return The amount of borrowed buffers
+     */
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    /**
+     * Returns how many of the borrowed buffers were recycled ones instead of newly allocated ones.
+     * @return The amount of reused buffers
+     */
+    public long getReuseCount() {
+        return reuseCount;
+    }
+
+    /**
+     * Returns the amount of buffers the arena keeps for reuse.
+     * @return The amount of pooled buffers
+     */
+    public int getPooledCount() {
+        return lists.size() + sets.size();
+    }
+
+    /**
+     * Removes the kept buffers, so their memory can be collected.
+     */
+    public void clear() {
+        lists.clear();
+        sets.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    <TElement> ArrayList<TElement> borrowList() {
+        borrowCount++;
+        var list = lists.pollLast();
+        if (list == null) {
+            return new ArrayList<>();
+        }
+
+        reuseCount++;
+        return (ArrayList<TElement>) list;
+    }
+
+    @SuppressWarnings("unchecked")
+    <TElement> HashSet<TElement> borrowSet(int expectedSize) {
+        borrowCount++;
+        var set = sets.pollLast();
+        if (set == null) {
+            return new HashSet<>(QueryBuilderBase.hashCapacity(expectedSize));
+        }
+
+        reuseCount++;
+        return (HashSet<TElement>) set;
+    }
+
+    /**
+     * Takes back a list, unless it is too large or the arena is full. The list must no longer be referenced.
+     */
+    void recycle(ArrayList<?> list) {
+        if (list.getClass() == ArrayList.class && list.size() <= maxRetainedSize && lists.size() < maxPooledBuffers) {
+            list.clear();
+            lists.addLast(list);
+        }
+    }
+
+    /**
+     * Takes back a hash set, unless it is too large or the arena is full. The set must no longer be referenced.
+     */
+    void recycle(HashSet<?> set) {
+        if (set.getClass() == HashSet.class && set.size() <= maxRetainedSize && sets.size() < maxPooledBuffers) {
+            set.clear();
+            sets.addLast(set);
+        }
+    }
+}
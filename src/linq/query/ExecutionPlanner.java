@@ -0,0 +1,455 @@
+package linq.query;
+
+import linq.lambda.Predicate1;
+import linq.orders.OrderBase;
+import linq.orders.Sorter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Chooses the algorithm of joins, orderings, distinct projections, groupings and filters when they are executed,
+ * by the sizes of their collections, whether the elements are known to be sorted or distinct, and the selectivity
+ * of filter conditions sampled on the first elements. The thresholds can be configured, and the chosen strategies
+ * can be kept in a log of the recent decisions. If the planner has a memory budget, the operations reserve the estimated
+ * size of their buffers from it, and joins and groupings that were given serializers spill to temporary files instead
+ * of exceeding it. Queries use the default planner unless they are given an other one.
+ */
+public class ExecutionPlanner {
+    private static final ExecutionPlanner DEFAULT = new ExecutionPlanner();
+    private static final int MAX_DECISIONS = 100;
+
+    private volatile int nestedLoopJoinThreshold = 256;
+    private volatile int linearDistinctThreshold = 16;
+    private volatile ForkJoinPool pool;
+    private volatile int parallelSortThreshold = 1 << 17;
+    private volatile double topKFraction = 0.1;
+    private volatile int filterSampleThreshold = 1024;
+    private volatile int filterSampleSize = 64;
+    private volatile MemoryBudget memoryBudget;
+    private volatile BufferArena bufferArena;
+    private volatile boolean threadLocalBufferArenas;
+    private volatile boolean logDecisions;
+    private final ArrayDeque<PlanStep> decisions = new ArrayDeque<>();
+
+    /**
+     * Returns the planner used by the queries that were not given an other one. Its thresholds can be configured,
+     * which affects every such query.
+     * @return The default planner
+     */
+    public static ExecutionPlanner getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Sets the maximum amount of element pairs that are joined by comparing their keys in a nested loop instead of
+     * building a hash table.
+     * @param nestedLoopJoinThreshold The maximum amount of pairs, 0 to always use a hash table
+     * @return The ExecutionPlanner
+     */
+    public ExecutionPlanner nestedLoopJoinThreshold(int nestedLoopJoinThreshold) {
+        if (nestedLoopJoinThreshold < 0) {
+            throw new IllegalArgumentException("The nested loop join threshold can not be negative.");
+        }
+
+        this.nestedLoopJoinThreshold = nestedLoopJoinThreshold;
+        return this;
+    }
+
+    /**
+     * Sets the maximum amount of elements whose distinct values are found by comparing each value to the kept ones
+     * instead of using a hash set.
+     * @param linearDistinctThreshold The maximum amount of elements, 0 to always use a hash set
+     * @return The ExecutionPlanner
+     */
+    public ExecutionPlanner linearDistinctThreshold(int linearDistinctThreshold) {
+        if (linearDistinctThreshold < 0) {
+            throw new IllegalArgumentException("The linear distinct threshold can not be negative.");
+        }
+
+        this.linearDistinctThreshold = linearDistinctThreshold;
+        return this;
+    }
+
+    /**
+     * Sets the pool that sorts the elements of orderings that were not configured with their own, if there are at
+     * least parallelSortThreshold elements. By default the planner has no pool, and sorts on the calling thread.
+     * @param pool The pool that executes the sort, or null to never sort in parallel
+     * @param parallelSortThreshold The minimum amount of elements that are sorted in parallel, Integer.MAX_VALUE to never sort in parallel
+     * @return The ExecutionPlanner
+     */
+    public ExecutionPlanner parallelSort(ForkJoinPool pool, int parallelSortThreshold) {
+        if (parallelSortThreshold < 2) {
+            throw new IllegalArgumentException("The parallel threshold must be at least 2.");
+        }
+
+        this.pool = pool;
+        this.parallelSortThreshold = parallelSortThreshold;
+        return this;
+    }
+
+    /**
+     * Sets the largest part of the elements an ordering can take while keeping them in a bounded heap instead of
+     * sorting every element.
+     * @param topKFraction The fraction of the elements, between 0 and 1, 0 to always sort every element
+     * @return The ExecutionPlanner
+     */
+    public ExecutionPlanner topKFraction(double topKFraction) {
+        if (!(topKFraction >= 0 && topKFraction <= 1)) {
+            throw new IllegalArgumentException("The top-k fraction must be between 0 and 1.");
+        }
+
+        this.topKFraction = topKFraction;
+        return this;
+    }
+
+    /**
+     * Sets how filters sample the selectivity of their condition. If there are at least sampleThreshold elements,
+     * the condition is checked on the first sampleSize elements, and the result list is presized by the ratio of
+     * the matching ones.
+     * @param sampleThreshold The minimum amount of elements that are sampled
+     * @param sampleSize The amount of sampled elements
+     * @return The ExecutionPlanner
+     */
+    public ExecutionPlanner filterSampling(int sampleThreshold, int sampleSize) {
+        if (sampleSize < 1 || sampleThreshold < sampleSize) {
+            throw new IllegalArgumentException("The sample size must be positive, and at most the sample threshold.");
+        }
+
+        this.filterSampleThreshold = sampleThreshold;
+        this.filterSampleSize = sampleSize;
+        return this;
+    }
+
+    /**
+     * Sets the budget the operations reserve the estimated size of their buffers from. Operations whose buffers do not
+     * fit spill to temporary files if they were given serializers, otherwise they fail with a MemoryBudgetExceededException.
+     * @param memoryBudget The budget, or null to not limit the memory
+     * @return The ExecutionPlanner
+     */
+    public ExecutionPlanner memoryBudget(MemoryBudget memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        return this;
+    }
+
+    /**
+     * Returns the budget the operations reserve the estimated size of their buffers from.
+     * @return The budget, or null if the memory is not limited
+     */
+    public MemoryBudget getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Sets the arena that recycles the temporary lists and hash sets of the operations. The arena is not thread-safe,
+     * so the queries using this planner must run on one thread at a time.
+     * @param bufferArena The arena, or null to allocate new buffers
+     * @return The ExecutionPlanner
+     */
+    public ExecutionPlanner bufferArena(BufferArena bufferArena) {
+        this.bufferArena = bufferArena;
+        this.threadLocalBufferArenas = false;
+        return this;
+    }
+
+    /**
+     * Makes the operations recycle their temporary lists and hash sets in the arena of the thread they run on,
+     * so the planner can be shared by queries running on different threads.
+     * @return The ExecutionPlanner
+     */
+    public ExecutionPlanner threadLocalBufferArenas() {
+        this.bufferArena = null;
+        this.threadLocalBufferArenas = true;
+        return this;
+    }
+
+    /**
+     * Sets whether the planner keeps a log of its recent decisions. The log is off by default, so operations do not
+     * lock the planner to record their strategy unless the decisions are read.
+     * @param logDecisions Whether the decisions are logged
+     * @return The ExecutionPlanner
+     */
+    public ExecutionPlanner logDecisions(boolean logDecisions) {
+        this.logDecisions = logDecisions;
+        return this;
+    }
+
+    /**
+     * Returns the recent decisions of the planner, the oldest first. At most the last 100 decisions are kept.
+     * @return The recent decisions
+     */
+    public synchronized List<PlanStep> getDecisions() {
+        return new ArrayList<>(decisions);
+    }
+
+    /**
+     * Returns the last decision of the planner.
+     * @return The last decision, or null if there was none
+     */
+    public synchronized PlanStep getLastDecision() {
+        return decisions.peekLast();
+    }
+
+    /**
+     * Removes the recorded decisions.
+     */
+    public synchronized void clearDecisions() {
+        decisions.clear();
+    }
+
+    /**
+     * Filters the elements. Large collections are filtered into a list presized by the sampled selectivity.
+     */
+    <TSource> ArrayList<TSource> filter(List<TSource> source, Predicate1<TSource> condition) {
+        try (var reservation = reserve(0, "Filter")) {
+            return filter(source, condition, reservation);
+        }
+    }
+
+    private <TSource> ArrayList<TSource> filter(List<TSource> source, Predicate1<TSource> condition, MemoryBudget.Reservation reservation) {
+        int sampleSize = filterSampleSize;
+        var elements = this.<TSource>resultList(reservation);
+        if (source.size() < filterSampleThreshold) {
+            if (logDecisions) {
+                record(Strategy.FILTER, "%d elements", source.size());
+            }
+
+            for (var element : source) {
+                if (condition.test(element)) {
+                    elements.add(element);
+                }
+            }
+
+            return elements;
+        }
+
+        for (int i = 0; i < sampleSize; i++) {
+            var element = source.get(i);
+            if (condition.test(element)) {
+                elements.add(element);
+            }
+        }
+
+        double selectivity = (double) elements.size() / sampleSize;
+        int remaining = source.size() - sampleSize;
+        int estimate = elements.size() + (int) Math.min(remaining, Math.ceil(selectivity * remaining * 1.1));
+        if (logDecisions) {
+            record(Strategy.SAMPLED_FILTER, "%d elements, sampled selectivity %.2f, presized for %d", source.size(), selectivity, estimate);
+        }
+
+        elements.ensureCapacity(estimate);
+        for (var element : source.subList(sampleSize, source.size())) {
+            if (condition.test(element)) {
+                elements.add(element);
+            }
+        }
+
+        return elements;
+    }
+
+    /**
+     * Chooses the algorithm of a join. Joins by a condition can only compare every pair of elements. A memory budget
+     * of 0 means that the join is not allowed to spill.
+     */
+    Strategy planJoin(int oneSize, int otherSize, boolean byKeys, int memoryBudget) {
+        Strategy strategy;
+        if (!byKeys || (long) oneSize * otherSize <= nestedLoopJoinThreshold) {
+            strategy = Strategy.NESTED_LOOP_JOIN;
+        } else if (memoryBudget > 0 && (otherSize > memoryBudget || !fits(MemoryBudget.estimateHashBytes(otherSize)))) {
+            strategy = Strategy.GRACE_HASH_JOIN;
+        } else {
+            strategy = Strategy.HASH_JOIN;
+        }
+
+        if (logDecisions) {
+            record(strategy, "%d x %d elements%s", oneSize, otherSize, byKeys ? "" : " by condition");
+        }
+
+        return strategy;
+    }
+
+    /**
+     * Creates the sorter of an ordering. The pool of the ordering, if it has one, takes precedence over the pool of the planner.
+     */
+    <TSource> Sorter<TSource> sorter(List<OrderBase<TSource, ?>> orders, int size, ForkJoinPool orderingPool, int orderingThreshold) {
+        var sortPool = orderingPool != null ? orderingPool : pool;
+        int threshold = orderingPool != null ? orderingThreshold : parallelSortThreshold;
+        if (sortPool == null || size < threshold) {
+            if (logDecisions) {
+                record(Strategy.SORT, "%d elements", size);
+            }
+
+            return new Sorter<>(orders);
+        }
+
+        if (logDecisions) {
+            record(Strategy.PARALLEL_SORT, "%d elements, parallelism %d", size, sortPool.getParallelism());
+        }
+
+        return new Sorter<>(orders, sortPool, threshold);
+    }
+
+    /**
+     * Records an ordering that is sorted from temporary files.
+     */
+    void recordExternalSort(int size, int memoryBudget) {
+        if (logDecisions) {
+            record(Strategy.EXTERNAL_SORT, "%d elements, runs of %d", size, memoryBudget);
+        }
+    }
+
+    /**
+     * Checks whether the first amount elements of an ordering should be kept in a bounded heap instead of sorting every element.
+     */
+    boolean planTopK(int amount, int size) {
+        if (amount <= 0 || amount > size * topKFraction) {
+            return false;
+        }
+
+        if (logDecisions) {
+            record(Strategy.TOP_K, "%d of %d elements", amount, size);
+        }
+
+        return true;
+    }
+
+    /**
+     * Chooses the algorithm of a distinct projection.
+     */
+    Strategy planDistinct(int size, boolean distinct, boolean sorted) {
+        Strategy strategy;
+        if (distinct) {
+            strategy = Strategy.ALREADY_DISTINCT;
+        } else if (sorted) {
+            strategy = Strategy.SORTED_DISTINCT;
+        } else if (size <= linearDistinctThreshold) {
+            strategy = Strategy.LINEAR_DISTINCT;
+        } else {
+            strategy = Strategy.HASH_DISTINCT;
+        }
+
+        if (logDecisions) {
+            record(strategy, "%d elements", size);
+        }
+
+        return strategy;
+    }
+
+    /**
+     * Chooses the algorithm of a grouping. A memory budget of 0 means that the grouping is not allowed to spill.
+     */
+    Strategy planAggregation(int size, boolean sorted, int memoryBudget) {
+        Strategy strategy;
+        if (sorted) {
+            strategy = Strategy.SORTED_AGGREGATION;
+        } else if (memoryBudget > 0 && (size > memoryBudget || !fits(aggregationBytes(size)))) {
+            strategy = Strategy.GRACE_HASH_AGGREGATION;
+        } else {
+            strategy = Strategy.HASH_AGGREGATION;
+        }
+
+        if (logDecisions) {
+            record(strategy, "%d elements", size);
+        }
+
+        return strategy;
+    }
+
+    /**
+     * Estimates the size of the hash table and the group lists of a grouping.
+     */
+    static long aggregationBytes(long size) {
+        return MemoryBudget.estimateHashBytes(size) + MemoryBudget.estimateListBytes(size);
+    }
+
+    /**
+     * Reserves the estimated bytes of an operation from the memory budget, if there is one.
+     */
+    MemoryBudget.Reservation reserve(long bytes, String operation) {
+        var budget = memoryBudget;
+        return budget != null ? budget.reserve(bytes, operation) : MemoryBudget.Reservation.none();
+    }
+
+    /**
+     * Creates a list for the results of an operation, which grows the reservation if the memory is limited.
+     */
+    <TElement> ArrayList<TElement> resultList(MemoryBudget.Reservation reservation) {
+        return memoryBudget != null ? new BudgetedList<>(reservation) : scratchList();
+    }
+
+    /**
+     * Returns a temporary list, recycled from the arena if the planner uses one.
+     */
+    <TElement> ArrayList<TElement> scratchList() {
+        var arena = arena();
+        return arena != null ? arena.borrowList() : new ArrayList<>();
+    }
+
+    /**
+     * Returns a temporary hash set, recycled from the arena if the planner uses one.
+     */
+    <TElement> HashSet<TElement> scratchSet(int expectedSize) {
+        var arena = arena();
+        return arena != null ? arena.borrowSet(expectedSize) : new HashSet<>(QueryBuilderBase.hashCapacity(expectedSize));
+    }
+
+    /**
+     * Gives a temporary list that is no longer referenced back to the arena, if the planner uses one.
+     */
+    void recycle(ArrayList<?> list) {
+        var arena = arena();
+        if (arena != null) {
+            arena.recycle(list);
+        }
+    }
+
+    /**
+     * Gives a temporary hash set that is no longer referenced back to the arena, if the planner uses one.
+     */
+    void recycle(HashSet<?> set) {
+        var arena = arena();
+        if (arena != null) {
+            arena.recycle(set);
+        }
+    }
+
+    private BufferArena arena() {
+        return threadLocalBufferArenas ? BufferArena.forCurrentThread() : bufferArena;
+    }
+
+    /**
+     * Returns the amount of elements of the given estimated size that fit into half of the available memory, leaving
+     * the other half for the results. The amount is at most the given limit and at least 1.
+     */
+    int elementsFitting(long bytesPerElement, int limit) {
+        var budget = memoryBudget;
+        if (budget == null) {
+            return limit;
+        }
+
+        return (int) Math.max(1, Math.min(limit, budget.getAvailableBytes() / 2 / bytesPerElement));
+    }
+
+    private boolean fits(long bytes) {
+        var budget = memoryBudget;
+        return budget == null || bytes <= budget.getAvailableBytes();
+    }
+
+    /**
+     * Adds a decision to the log. The callers check whether the decisions are logged first, so the arguments are
+     * not boxed when they are not.
+     */
+    private void record(Strategy strategy, String format, Object... args) {
+        var step = new PlanStep(strategy, format, args);
+        synchronized (this) {
+            if (decisions.size() == MAX_DECISIONS) {
+                decisions.removeFirst();
+            }
+
+            decisions.addLast(step);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package linq.query;
+
+import linq.io.ElementSerializer;
+import linq.io.SpillFile;
+import linq.lambda.Func1;
+import linq.lambda.Func2;
+
+import java.io.Closeable;
+import java.util.*;
+
+/**
+ * Hash based joining and grouping. If the build side does not fit into the memory budget, the elements are
+ * partitioned by the hash of their key into temporary files, and the partitions are processed one at a time.
+ */
+class GraceHashing {
+    private static final int MAX_PARTITIONS = 256;
+    private static final int MAX_LEVEL = 4;
+
+    private GraceHashing() {
+    }
+
+    /**
+     * Joins the elements whose keys are equal using a hash table built from the other elements.
+     * The results follow the order of the first collection, then the order of the other collection.
+     */
+    static <TOne, TOther, TResult> void hashJoin(Iterable<TOne> one, Iterable<TOther> other,
+                                                 Func1<TOne, ?> oneKeySelector, Func1<TOther, ?> otherKeySelector,
+                                                 Func2<TOne, TOther, TResult> converter, List<TResult> results) {
+        var table = new HashMap<Object, ArrayList<TOther>>();
+        for (var otherElement : other) {
+            table.computeIfAbsent(otherKeySelector.execute(otherElement), k -> new ArrayList<>()).add(otherElement);
+        }
+
+        for (var element : one) {
+            var matches = table.get(oneKeySelector.execute(element));
+            if (matches != null) {
+                for (var otherElement : matches) {
+                    results.add(converter.execute(element, otherElement));
+                }
+            }
+        }
+    }
+
+    /**
+     * Joins the elements whose keys are equal. If the other collection has more elements than the memory budget,
+     * both collections are partitioned to temporary files and the partitions are joined one by one.
+     */
+    static <TOne, TOther, TResult> void join(Iterable<TOne> one, Iterable<TOther> other, int otherCount,
+                                             Func1<TOne, ?> oneKeySelector, Func1<TOther, ?> otherKeySelector,
+                                             Func2<TOne, TOther, TResult> converter, int memoryBudget,
+                                             ElementSerializer<TOne> oneSerializer, ElementSerializer<TOther> otherSerializer,
+                                             int level, List<TResult> results) {
+        if (otherCount <= memoryBudget || level == MAX_LEVEL) {
+            hashJoin(one, other, oneKeySelector, otherKeySelector, converter, results);
+            return;
+        }
+
+        int partitionCount = partitionCount(otherCount, memoryBudget);
+        try (var oneParts = new Partitions<>(one, oneKeySelector, partitionCount, level, oneSerializer);
+             var otherParts = new Partitions<>(other, otherKeySelector, partitionCount, level, otherSerializer)) {
+            for (int i = 0; i < partitionCount; i++) {
+                if (oneParts.size(i) == 0 || otherParts.size(i) == 0) {
+                    continue;
+                }
+
+                join(oneParts.iterable(i), otherParts.iterable(i), otherParts.size(i),
+                        oneKeySelector, otherKeySelector, converter, memoryBudget,
+                        oneSerializer, otherSerializer, level + 1, results);
+            }
+        }
+    }
+
+    /**
+     * Groups the elements by their keys in the order the keys first appear, and converts each group with the result selector.
+     */
+    static <TSource, TKey, TResult> void hashGroup(Iterable<TSource> elements, Func1<TSource, TKey> keySelector,
+                                                   Func1<Grouping<TKey, TSource>, TResult> resultSelector,
+                                                   List<TResult> results) {
+        var groups = new LinkedHashMap<TKey, ArrayList<TSource>>();
+        for (var element : elements) {
+            groups.computeIfAbsent(keySelector.execute(element), k -> new ArrayList<>()).add(element);
+        }
+
+        for (var group : groups.entrySet()) {
+            results.add(resultSelector.execute(new Grouping<>(group.getKey(), group.getValue())));
+        }
+    }
+
+    /**
+     * Groups elements whose equal keys are next to each other, closing each group when the key changes.
+     */
+    static <TSource, TKey, TResult> void sortedGroup(List<TSource> elements, Func1<TSource, TKey> keySelector,
+                                                     Func1<Grouping<TKey, TSource>, TResult> resultSelector,
+                                                     List<TResult> results) {
+        if (elements.isEmpty()) {
+            return;
+        }
+
+        int from = 0;
+        var key = keySelector.execute(elements.get(0));
+        for (int i = 1; i <= elements.size(); i++) {
+            var nextKey = i < elements.size() ? keySelector.execute(elements.get(i)) : null;
+            if (i == elements.size() || !Objects.equals(key, nextKey)) {
+                results.add(resultSelector.execute(new Grouping<>(key, elements.subList(from, i))));
+                from = i;
+                key = nextKey;
+            }
+        }
+    }
+
+    /**
+     * Groups the elements by their keys. If there are more elements than the memory budget, the elements are
+     * partitioned to temporary files and each partition is grouped and converted separately.
+     */
+    static <TSource, TKey, TResult> void group(Iterable<TSource> elements, int count, Func1<TSource, TKey> keySelector,
+                                               Func1<Grouping<TKey, TSource>, TResult> resultSelector, int memoryBudget,
+                                               ElementSerializer<TSource> serializer, int level, List<TResult> results) {
+        if (count <= memoryBudget || level == MAX_LEVEL) {
+            hashGroup(elements, keySelector, resultSelector, results);
+            return;
+        }
+
+        int partitionCount = partitionCount(count, memoryBudget);
+        try (var partitions = new Partitions<>(elements, keySelector, partitionCount, level, serializer)) {
+            for (int i = 0; i < partitionCount; i++) {
+                if (partitions.size(i) != 0) {
+                    group(partitions.iterable(i), partitions.size(i), keySelector, resultSelector,
+                            memoryBudget, serializer, level + 1, results);
+                }
+            }
+        }
+    }
+
+    static void validateMemoryBudget(int memoryBudget) {
+        if (memoryBudget < 1) {
+            throw new IllegalArgumentException("The memory budget must be at least 1 element.");
+        }
+    }
+
+    private static int partitionCount(int count, int memoryBudget) {
+        long partitionCount = 2L * count / memoryBudget + 1;
+        return (int) Math.min(partitionCount, MAX_PARTITIONS);
+    }
+
+    /**
+     * Elements split into temporary files by the hash of their key. Each level uses a different hash,
+     * so a partition that is still too large can be partitioned again.
+     */
+    private static class Partitions<T> implements Closeable {
+        private ArrayList<SpillFile<T>> files;
+
+        Partitions(Iterable<T> elements, Func1<T, ?> keySelector, int partitionCount, int level, ElementSerializer<T> serializer) {
+            files = new ArrayList<>(partitionCount);
+            try {
+                for (int i = 0; i < partitionCount; i++) {
+                    files.add(new SpillFile<>(serializer));
+                }
+
+                for (var element : elements) {
+                    files.get(partitionOf(keySelector.execute(element), level, partitionCount)).write(element);
+                }
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        int size(int partition) {
+            return files.get(partition).size();
+        }
+
+        /**
+         * Returns the partition as an iterable that can only be iterated once.
+         */
+        Iterable<T> iterable(int partition) {
+            return () -> files.get(partition).read();
+        }
+
+        private static int partitionOf(Object key, int level, int partitionCount) {
+            int hash = Objects.hashCode(key) * (0x9E3779B9 + 2 * level);
+            hash ^= hash >>> 16;
+            return Math.floorMod(hash, partitionCount);
+        }
+
+        @Override
+        public void close() {
+            for (var file : files) {
+                file.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package linq.query;
+
+import java.util.Collection;
+
+/**
+ * A group of elements that have the same key. Can be queried like any other collection.
+ * @param <TKey> The type of the key
+ * @param <TElement> The type of the elements in the group
+ */
+public class Grouping<TKey, TElement> extends QueryBuilder<TElement> {
+    private TKey key;
+
+    Grouping(TKey key, Collection<TElement> elements) {
+        super(elements);
+        this.key = key;
+    }
+
+    /**
+     * Returns the key that is common in the elements of the group.
+     * @return The key of the group
+     */
+    public TKey getKey() {
+        return key;
+    }
+}
@@ -1,9 +1,13 @@
 package linq.query;
 
+import linq.io.ElementSerializer;
+import linq.lambda.Func1;
 import linq.lambda.Func2;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * A class for building and executing join operations between two collections.
@@ -14,11 +18,18 @@ public class JoinBuilder<TOne, TOther> {
     private ArrayList<TOne> one;
     private ArrayList<TOther> other;
     private Func2<TOne, TOther, Boolean> condition;
+    private Func1<TOne, ?> oneKeySelector;
+    private Func1<TOther, ?> otherKeySelector;
+    private int memoryBudget;
+    private ElementSerializer<TOne> oneSerializer;
+    private ElementSerializer<TOther> otherSerializer;
+    private ExecutionPlanner planner;
 
-    JoinBuilder(Collection<TOne> one, Collection<TOther> other) {
+    JoinBuilder(Collection<TOne> one, Collection<TOther> other, ExecutionPlanner planner) {
         this.one = new ArrayList<>(one);
         this.other = new ArrayList<>(other);
         this.condition = (element, otherElement) -> true;
+        this.planner = planner;
     }
 
     /**
@@ -28,6 +39,41 @@ public class JoinBuilder<TOne, TOther> {
      */
     public JoinBuilder<TOne, TOther> on(Func2<TOne, TOther, Boolean> condition) {
         this.condition = condition;
+        this.oneKeySelector = null;
+        this.otherKeySelector = null;
+        return this;
+    }
+
+    /**
+     * Sets the join condition to the equality of the selected keys. Unless the collections are small, the join is
+     * executed using a hash table built from the second collection instead of comparing every pair of elements.
+     * @param oneKeySelector The selector that selects the key of an element of the first collection
+     * @param otherKeySelector The selector that selects the key of an element of the second collection
+     * @param <TKey> The type of the key
+     * @return The JoinBuilder
+     */
+    public <TKey> JoinBuilder<TOne, TOther> on(Func1<TOne, TKey> oneKeySelector, Func1<TOther, TKey> otherKeySelector) {
+        this.oneKeySelector = oneKeySelector;
+        this.otherKeySelector = otherKeySelector;
+        return this;
+    }
+
+    /**
+     * Limits the amount of elements of the second collection that are held in the hash table of a key based join.
+     * If the second collection is larger, or its hash table does not fit into the memory budget of the planner, both
+     * collections are partitioned by the hash of their keys into temporary files using the serializers, and the
+     * partitions are joined one at a time. The results are then ordered by partition instead of by the order of the
+     * first collection.
+     * @param memoryBudget The maximum amount of elements in the hash table
+     * @param oneSerializer The serializer of the elements of the first collection
+     * @param otherSerializer The serializer of the elements of the second collection
+     * @return The JoinBuilder
+     */
+    public JoinBuilder<TOne, TOther> withMemoryBudget(int memoryBudget, ElementSerializer<TOne> oneSerializer, ElementSerializer<TOther> otherSerializer) {
+        GraceHashing.validateMemoryBudget(memoryBudget);
+        this.memoryBudget = memoryBudget;
+        this.oneSerializer = oneSerializer;
+        this.otherSerializer = otherSerializer;
         return this;
     }
 
@@ -38,15 +84,53 @@ public class JoinBuilder<TOne, TOther> {
      * @return A QueryBuilder containing the joined collection
      */
     public <TResult> QueryBuilder<TResult> into(Func2<TOne, TOther, TResult> converter) {
-        var elements = new ArrayList<TResult>();
-        for (var element : one) {
-            for (var otherElement : other) {
-                if (condition.execute(element, otherElement)) {
-                    elements.add(converter.execute(element, otherElement));
+        var strategy = planner.planJoin(one.size(), other.size(), oneKeySelector != null, memoryBudget);
+        try (var reservation = planner.reserve(0, "Join")) {
+            var elements = planner.<TResult>resultList(reservation);
+            if (strategy == Strategy.GRACE_HASH_JOIN) {
+                int partitionBudget = planner.elementsFitting(MemoryBudget.HASH_ENTRY_BYTES, memoryBudget);
+                reservation.grow(partitionBudget * MemoryBudget.HASH_ENTRY_BYTES);
+                GraceHashing.join(one, other, other.size(), oneKeySelector, otherKeySelector, converter,
+                        partitionBudget, oneSerializer, otherSerializer, 0, elements);
+            } else if (strategy == Strategy.HASH_JOIN) {
+                reservation.grow(MemoryBudget.estimateHashBytes(other.size()));
+                GraceHashing.hashJoin(one, other, oneKeySelector, otherKeySelector, converter, elements);
+            } else if (oneKeySelector != null) {
+                reservation.grow(MemoryBudget.estimateListBytes(other.size()));
+                nestedLoopJoin(converter, elements);
+            } else {
+                for (var element : one) {
+                    for (var otherElement : other) {
+                        if (condition.execute(element, otherElement)) {
+                            elements.add(converter.execute(element, otherElement));
+                        }
+                    }
                 }
             }
+
+            var queryBuilder = new QueryBuilder<>(elements);
+            queryBuilder.planner = planner;
+            planner.recycle(elements);
+            return queryBuilder;
         }
+    }
 
-        return new QueryBuilder<>(elements);
+    /**
+     * Joins the elements with equal keys by comparing the key of each element to the keys of the other collection.
+     */
+    private <TResult> void nestedLoopJoin(Func2<TOne, TOther, TResult> converter, List<TResult> elements) {
+        var otherKeys = new Object[other.size()];
+        for (int i = 0; i < otherKeys.length; i++) {
+            otherKeys[i] = otherKeySelector.execute(other.get(i));
+        }
+
+        for (var element : one) {
+            var key = oneKeySelector.execute(element);
+            for (int i = 0; i < otherKeys.length; i++) {
+                if (Objects.equals(key, otherKeys[i])) {
+                    elements.add(converter.execute(element, other.get(i)));
+                }
+            }
+        }
     }
 }
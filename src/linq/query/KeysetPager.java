@@ -0,0 +1,104 @@
+package linq.query;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Pages through the result of an ordered query by keyset: a page is requested by the last element of the previous
+ * page instead of an offset. The elements are ordered once when the pager is created, and each page is found with a
+ * binary search and returned as a read-only view, without copying.
+ * The ordering should be unique (e.g. end with a thenBy on an id), otherwise elements that are equal to the last
+ * element of a page in every ordering are skipped.
+ * @param <TSource> The type of the elements
+ */
+public class KeysetPager<TSource> {
+    private List<TSource> orderedElements;
+    private Comparator<TSource> comparator;
+
+    KeysetPager(List<TSource> orderedElements, Comparator<TSource> comparator) {
+        this.orderedElements = Collections.unmodifiableList(orderedElements);
+        this.comparator = comparator;
+    }
+
+    /**
+     * Returns the amount of elements that can be paged through.
+     * @return The amount of elements
+     */
+    public int count() {
+        return orderedElements.size();
+    }
+
+    /**
+     * Returns the first page.
+     * @param pageSize The maximum amount of elements on the page
+     * @return A read-only view of the elements of the page
+     */
+    public List<TSource> first(int pageSize) {
+        return page(0, pageSize);
+    }
+
+    /**
+     * Returns the page that follows the given element in the ordering.
+     * @param lastElement The last element of the previous page
+     * @param pageSize The maximum amount of elements on the page
+     * @return A read-only view of the elements of the page, empty if there are no more elements
+     */
+    public List<TSource> after(TSource lastElement, int pageSize) {
+        return page(firstIndexAfter(lastElement), pageSize);
+    }
+
+    /**
+     * Returns the page that precedes the given element in the ordering.
+     * @param firstElement The first element of the next page
+     * @param pageSize The maximum amount of elements on the page
+     * @return A read-only view of the elements of the page, empty if there are no elements before
+     */
+    public List<TSource> before(TSource firstElement, int pageSize) {
+        validatePageSize(pageSize);
+
+        int end = firstIndexNotBefore(firstElement);
+        return orderedElements.subList(Math.max(0, end - pageSize), end);
+    }
+
+    private List<TSource> page(int start, int pageSize) {
+        validatePageSize(pageSize);
+        return orderedElements.subList(start, (int) Math.min((long) start + pageSize, orderedElements.size()));
+    }
+
+    private void validatePageSize(int pageSize) {
+        if (pageSize < 0) {
+            throw new IllegalArgumentException("The page size must be a natural number.");
+        }
+    }
+
+    private int firstIndexAfter(TSource element) {
+        int low = 0;
+        int high = orderedElements.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(orderedElements.get(middle), element) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private int firstIndexNotBefore(TSource element) {
+        int low = 0;
+        int high = orderedElements.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(orderedElements.get(middle), element) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
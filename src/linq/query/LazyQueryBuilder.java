@@ -0,0 +1,185 @@
+package linq.query;
+
+import linq.lambda.Action;
+import linq.lambda.Func1;
+import linq.lambda.Predicate1;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Represents a query over a stream that is only evaluated when a terminal action is executed (e.g. first or toList),
+ * and only as far as that action needs. Like the stream itself, the query can only be executed once.
+ * @param <TSource> The type of the elements of the stream
+ */
+public class LazyQueryBuilder<TSource> {
+    private Stream<TSource> stream;
+
+    public LazyQueryBuilder(Stream<TSource> stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * Filters the elements that satisfy the given condition.
+     * @param condition The condition to be checked
+     * @return A LazyQueryBuilder containing the filtered elements
+     */
+    public LazyQueryBuilder<TSource> where(Func1<TSource, Boolean> condition) {
+        return where(Predicate1.of(condition));
+    }
+
+    /**
+     * Filters the elements that satisfy the given condition.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return A LazyQueryBuilder containing the filtered elements
+     */
+    public LazyQueryBuilder<TSource> where(Predicate1<TSource> condition) {
+        return new LazyQueryBuilder<>(stream.filter(condition));
+    }
+
+    /**
+     * Projects the elements into an other type using the given selector.
+     * @param converter The method that converts an element
+     * @param <TTarget> The desired type
+     * @return A LazyQueryBuilder containing the projected elements
+     */
+    public <TTarget> LazyQueryBuilder<TTarget> select(Func1<TSource, TTarget> converter) {
+        return new LazyQueryBuilder<>(stream.map(converter::execute));
+    }
+
+    /**
+     * Removes the first elements.
+     * @param amount The amount of elements to be skipped
+     * @return A LazyQueryBuilder containing the remaining elements
+     */
+    public LazyQueryBuilder<TSource> skip(int amount) {
+        validateAmount(amount);
+        return new LazyQueryBuilder<>(stream.skip(amount));
+    }
+
+    /**
+     * Keeps the first elements. The rest of the elements are never produced.
+     * @param amount The amount of elements to be kept
+     * @return A LazyQueryBuilder containing the first elements
+     */
+    public LazyQueryBuilder<TSource> take(int amount) {
+        validateAmount(amount);
+        return new LazyQueryBuilder<>(stream.limit(amount));
+    }
+
+    /**
+     * Checks whether any element satisfies the given condition. Stops at the first such element.
+     * @param condition The condition to be checked
+     * @return Whether any element satisfies the condition
+     */
+    public boolean any(Func1<TSource, Boolean> condition) {
+        return any(Predicate1.of(condition));
+    }
+
+    /**
+     * Checks whether any element satisfies the given condition. Stops at the first such element.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return Whether any element satisfies the condition
+     */
+    public boolean any(Predicate1<TSource> condition) {
+        return stream.anyMatch(condition);
+    }
+
+    /**
+     * Checks whether every element satisfies the given condition. Stops at the first element that does not.
+     * @param condition The condition to be checked
+     * @return Whether all elements satisfy the condition
+     */
+    public boolean all(Func1<TSource, Boolean> condition) {
+        return all(Predicate1.of(condition));
+    }
+
+    /**
+     * Checks whether every element satisfies the given condition. Stops at the first element that does not.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return Whether all elements satisfy the condition
+     */
+    public boolean all(Predicate1<TSource> condition) {
+        return stream.allMatch(condition);
+    }
+
+    /**
+     * Returns the first element.
+     * @return The first element
+     */
+    public TSource first() {
+        var iterator = stream.iterator();
+        if (!iterator.hasNext()) {
+            throw new NoSuchElementException("The collection is empty.");
+        }
+
+        return iterator.next();
+    }
+
+    /**
+     * Returns the first element or null if there are no elements.
+     * @return The first element
+     */
+    public TSource firstOrDefault() {
+        var iterator = stream.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Counts the elements.
+     * @return The amount of elements
+     */
+    public long count() {
+        return stream.count();
+    }
+
+    /**
+     * Calls the action on every element.
+     * @param action The action to be called
+     */
+    public void forEach(Action<TSource> action) {
+        stream.forEachOrdered(action::execute);
+    }
+
+    /**
+     * Collects the elements into a list.
+     * @return The list of the elements
+     */
+    public List<TSource> toList() {
+        return stream.collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Collects the elements into a QueryBuilder, which supports every operation, e.g. ordering and grouping.
+     * @return A QueryBuilder containing the elements
+     */
+    public QueryBuilder<TSource> toQuery() {
+        return new QueryBuilder<>(toList());
+    }
+
+    /**
+     * Returns the stream of the query.
+     * @return The stream of the elements
+     */
+    public Stream<TSource> toStream() {
+        return stream;
+    }
+
+    /**
+     * Returns an iterator that pulls the elements from the stream as it is iterated.
+     * @return An iterator over the elements
+     */
+    public Iterator<TSource> iterator() {
+        return stream.iterator();
+    }
+
+    private void validateAmount(int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("The amount must be a natural number.");
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package linq.query;
+
+import linq.exceptions.MemoryBudgetExceededException;
+
+/**
+ * Limits the estimated amount of bytes held in the intermediate buffers of queries: result lists, hash tables, sort
+ * keys and heaps. The elements themselves are not counted, only the memory the operations allocate to hold them.
+ * An operation reserves its estimate before allocating, and releases it when it is finished. If a reservation does
+ * not fit, the operation spills to temporary files where it was given a serializer, otherwise it fails with a
+ * MemoryBudgetExceededException before allocating. A budget can be shared by queries running on different threads.
+ */
+public class MemoryBudget {
+    /**
+     * The estimated size of a reference, assuming uncompressed references.
+     */
+    static final long REFERENCE_BYTES = 8;
+
+    /**
+     * The estimated size of a hash table entry: the node, the boxed hash and the slot in the table at 0.75 load factor.
+     */
+    static final long HASH_ENTRY_BYTES = 48;
+
+    private static final long OBJECT_HEADER_BYTES = 16;
+
+    private final long maxBytes;
+    private long usedBytes;
+    private long peakBytes;
+    private long executionPeakBytes;
+    private long lastExecutionPeakBytes;
+
+    /**
+     * Creates a budget.
+     * @param maxBytes The maximum amount of bytes the reservations can hold at a time
+     */
+    public MemoryBudget(long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("The memory budget must be at least 1 byte.");
+        }
+
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Estimates the size of a list of references.
+     * @param elements The amount of elements
+     * @return The estimated bytes
+     */
+    public static long estimateListBytes(long elements) {
+        return 2 * OBJECT_HEADER_BYTES + elements * REFERENCE_BYTES;
+    }
+
+    /**
+     * Estimates the size of a hash table.
+     * @param entries The amount of entries
+     * @return The estimated bytes
+     */
+    public static long estimateHashBytes(long entries) {
+        return 3 * OBJECT_HEADER_BYTES + entries * HASH_ENTRY_BYTES;
+    }
+
+    /**
+     * Reserves the given amount of bytes, or fails if they do not fit into the budget.
+     * @param bytes The estimated bytes
+     * @param operation The name of the operation, which is shown in the exception
+     * @return The reservation, which has to be closed when the buffers are no longer held
+     */
+    public Reservation reserve(long bytes, String operation) {
+        var reservation = new Reservation(this, operation);
+        reservation.grow(bytes);
+        return reservation;
+    }
+
+    /**
+     * Returns the maximum amount of bytes the reservations can hold at a time.
+     * @return The maximum bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the amount of bytes held by the open reservations.
+     * @return The used bytes
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Returns the amount of bytes that can still be reserved.
+     * @return The available bytes
+     */
+    public synchronized long getAvailableBytes() {
+        return maxBytes - usedBytes;
+    }
+
+    /**
+     * Returns the largest amount of bytes that was held at a time since the budget was created.
+     * @return The peak bytes
+     */
+    public synchronized long getPeakBytes() {
+        return peakBytes;
+    }
+
+    /**
+     * Returns the largest amount of bytes that was held at a time during the last execution, which lasts from the
+     * first reservation until every reservation is released.
+     * @return The peak bytes of the last finished execution
+     */
+    public synchronized long getLastExecutionPeakBytes() {
+        return lastExecutionPeakBytes;
+    }
+
+    private synchronized void take(long bytes, String operation) {
+        if (bytes > maxBytes - usedBytes) {
+            throw new MemoryBudgetExceededException(String.format(
+                    "%s needs an estimated %d bytes, but only %d of the %d bytes of the memory budget are available.",
+                    operation, bytes, maxBytes - usedBytes, maxBytes), bytes, maxBytes - usedBytes);
+        }
+
+        usedBytes += bytes;
+        peakBytes = Math.max(peakBytes, usedBytes);
+        executionPeakBytes = Math.max(executionPeakBytes, usedBytes);
+    }
+
+    private synchronized void give(long bytes) {
+        usedBytes -= bytes;
+        if (usedBytes == 0) {
+            lastExecutionPeakBytes = executionPeakBytes;
+            executionPeakBytes = 0;
+        }
+    }
+
+    /**
+     * Bytes reserved from a budget by an operation. Closing the reservation releases the bytes.
+     */
+    public static class Reservation implements AutoCloseable {
+        private static final Reservation NONE = new Reservation(null, null);
+
+        private MemoryBudget budget;
+        private String operation;
+        private long bytes;
+
+        private Reservation(MemoryBudget budget, String operation) {
+            this.budget = budget;
+            this.operation = operation;
+        }
+
+        /**
+         * Returns a reservation that is not limited by any budget.
+         */
+        static Reservation none() {
+            return NONE;
+        }
+
+        /**
+         * Reserves more bytes, or fails if they do not fit into the budget.
+         * @param extraBytes The additional estimated bytes
+         */
+        public void grow(long extraBytes) {
+            if (budget != null && extraBytes > 0) {
+                budget.take(extraBytes, operation);
+                bytes += extraBytes;
+            }
+        }
+
+        /**
+         * Returns the amount of bytes held by the reservation.
+         * @return The reserved bytes
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public void close() {
+            if (budget != null && bytes > 0) {
+                budget.give(bytes);
+                bytes = 0;
+            }
+        }
+    }
+}
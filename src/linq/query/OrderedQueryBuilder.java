@@ -1,14 +1,33 @@
 package linq.query;
 
+import linq.collections.IntColumn;
+import linq.collections.IntObjectMap;
+import linq.collections.LongObjectMap;
+import linq.io.CloseableIterator;
+import linq.io.ElementSerializer;
+import linq.io.RowEncoder;
+import linq.io.RowWriter;
 import linq.lambda.Action;
 import linq.lambda.Func1;
 import linq.lambda.Func2;
+import linq.lambda.Predicate1;
+import linq.lambda.ToDoubleFunc1;
+import linq.lambda.ToIntFunc1;
+import linq.lambda.ToLongFunc1;
 import linq.orders.Direction;
+import linq.orders.ExternalMergeSort;
 import linq.orders.OrderBase;
 import linq.orders.OrderByComparable;
 import linq.orders.OrderByComparator;
+import linq.orders.OrderByDouble;
+import linq.orders.OrderByInt;
+import linq.orders.OrderByLong;
 
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Represents a query that will be ordered on actions that convert it from this type (e.g. toList)
@@ -16,9 +35,16 @@ import java.util.*;
  */
 public class OrderedQueryBuilder<TSource> extends QueryBuilderBase<TSource> {
     private ArrayList<OrderBase<TSource, ?>> orders;
+    private ExternalMergeSort<TSource> externalSort;
+    private ForkJoinPool pool;
+    private int parallelThreshold;
+    private volatile QueryBuilder<TSource> ordered;
 
-    OrderedQueryBuilder(Collection<TSource> source, OrderBase<TSource, ?> firstOrder) {
-        super(source);
+    OrderedQueryBuilder(QueryBuilder<TSource> query, OrderBase<TSource, ?> firstOrder) {
+        super(query.toList());
+        this.sortOrder = query.sortOrder;
+        this.distinct = query.distinct;
+        this.planner = query.planner;
         orders = new ArrayList<>();
         orders.add(firstOrder);
     }
@@ -30,7 +56,7 @@ public class OrderedQueryBuilder<TSource> extends QueryBuilderBase<TSource> {
      * @return The OrderedQueryBuilder
      */
     public <TProperty extends Comparable<TProperty>> OrderedQueryBuilder<TSource> thenBy(Func1<TSource, TProperty> selector) {
-        orders.add(0, new OrderByComparable<>(selector, Direction.ASCENDING));
+        queueOrder(new OrderByComparable<>(selector, Direction.ASCENDING));
         return this;
     }
 
@@ -42,7 +68,7 @@ public class OrderedQueryBuilder<TSource> extends QueryBuilderBase<TSource> {
      * @return The OrderedQueryBuilder
      */
     public <TProperty> OrderedQueryBuilder<TSource> thenBy(Func1<TSource, TProperty> selector, Comparator<TProperty> comparator) {
-        orders.add(0, new OrderByComparator<>(selector, Direction.ASCENDING, comparator));
+        queueOrder(new OrderByComparator<>(selector, Direction.ASCENDING, comparator));
         return this;
     }
 
@@ -53,7 +79,7 @@ public class OrderedQueryBuilder<TSource> extends QueryBuilderBase<TSource> {
      * @return The OrderedQueryBuilder
      */
     public <TProperty extends Comparable<TProperty>> OrderedQueryBuilder<TSource> thenByDescending(Func1<TSource, TProperty> selector) {
-        orders.add(0, new OrderByComparable<>(selector, Direction.DESCENDING));
+        queueOrder(new OrderByComparable<>(selector, Direction.DESCENDING));
         return this;
     }
 
@@ -65,86 +91,614 @@ public class OrderedQueryBuilder<TSource> extends QueryBuilderBase<TSource> {
      * @return The OrderedQueryBuilder
      */
     public <TProperty> OrderedQueryBuilder<TSource> thenByDescending(Func1<TSource, TProperty> selector, Comparator<TProperty> comparator) {
-        orders.add(0, new OrderByComparator<>(selector, Direction.DESCENDING, comparator));
+        queueOrder(new OrderByComparator<>(selector, Direction.DESCENDING, comparator));
         return this;
     }
 
-    private void orderElements() {
-        for (var order : orders) {
-            source = order.execute(source);
+    /**
+     * Queues an ordering that orders the elements ascending by the selected primitive int property.
+     * @param selector The selector that selects the property
+     * @return The OrderedQueryBuilder
+     */
+    public OrderedQueryBuilder<TSource> thenByInt(ToIntFunc1<TSource> selector) {
+        queueOrder(new OrderByInt<>(selector, Direction.ASCENDING));
+        return this;
+    }
+
+    /**
+     * Queues an ordering that orders the elements descending by the selected primitive int property.
+     * @param selector The selector that selects the property
+     * @return The OrderedQueryBuilder
+     */
+    public OrderedQueryBuilder<TSource> thenByIntDescending(ToIntFunc1<TSource> selector) {
+        queueOrder(new OrderByInt<>(selector, Direction.DESCENDING));
+        return this;
+    }
+
+    /**
+     * Queues an ordering that orders the elements ascending by the selected primitive long property.
+     * @param selector The selector that selects the property
+     * @return The OrderedQueryBuilder
+     */
+    public OrderedQueryBuilder<TSource> thenByLong(ToLongFunc1<TSource> selector) {
+        queueOrder(new OrderByLong<>(selector, Direction.ASCENDING));
+        return this;
+    }
+
+    /**
+     * Queues an ordering that orders the elements descending by the selected primitive long property.
+     * @param selector The selector that selects the property
+     * @return The OrderedQueryBuilder
+     */
+    public OrderedQueryBuilder<TSource> thenByLongDescending(ToLongFunc1<TSource> selector) {
+        queueOrder(new OrderByLong<>(selector, Direction.DESCENDING));
+        return this;
+    }
+
+    /**
+     * Queues an ordering that orders the elements ascending by the selected primitive double property.
+     * @param selector The selector that selects the property
+     * @return The OrderedQueryBuilder
+     */
+    public OrderedQueryBuilder<TSource> thenByDouble(ToDoubleFunc1<TSource> selector) {
+        queueOrder(new OrderByDouble<>(selector, Direction.ASCENDING));
+        return this;
+    }
+
+    /**
+     * Queues an ordering that orders the elements descending by the selected primitive double property.
+     * @param selector The selector that selects the property
+     * @return The OrderedQueryBuilder
+     */
+    public OrderedQueryBuilder<TSource> thenByDoubleDescending(ToDoubleFunc1<TSource> selector) {
+        queueOrder(new OrderByDouble<>(selector, Direction.DESCENDING));
+        return this;
+    }
+
+    /**
+     * Orders the elements with an external merge sort instead of in memory. At most memoryBudget elements are sorted
+     * in memory at a time, the sorted runs are written to temporary files using the serializer, and merged lazily
+     * when the result is consumed through the iterator.
+     * @param memoryBudget The maximum amount of elements that are sorted in memory at a time
+     * @param serializer The serializer that writes the elements to the temporary files
+     * @return The OrderedQueryBuilder
+     */
+    public synchronized OrderedQueryBuilder<TSource> spillToDisk(int memoryBudget, ElementSerializer<TSource> serializer) {
+        externalSort = new ExternalMergeSort<>(comparator(), memoryBudget, serializer);
+        return this;
+    }
+
+    /**
+     * Sorts the elements in parallel on the given pool if there are at least parallelThreshold of them. The result is
+     * the same as the result of the sequential sort: elements that are equal in every ordering keep their order.
+     * Orderings that can use the radix sort are not affected, as it does not compare the elements.
+     * @param pool The pool that executes the sort
+     * @param parallelThreshold The minimum amount of elements that are sorted in parallel
+     * @return The OrderedQueryBuilder
+     */
+    public synchronized OrderedQueryBuilder<TSource> parallel(ForkJoinPool pool, int parallelThreshold) {
+        if (parallelThreshold < 2) {
+            throw new IllegalArgumentException("The parallel threshold must be at least 2.");
+        }
+
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+        return this;
+    }
+
+    /**
+     * Sets the planner that chooses the algorithms of the ordering, the operations on the query and the queries created from it.
+     * @param planner The planner
+     * @return The OrderedQueryBuilder
+     */
+    public synchronized OrderedQueryBuilder<TSource> withPlanner(ExecutionPlanner planner) {
+        this.planner = planner;
+        ordered = null;
+        return this;
+    }
+
+    /**
+     * Returns an iterator over the ordered elements. If the query spills to disk, the sorted runs are merged while
+     * iterating, so the ordered result is never held in memory as a whole. The iterator should be closed if it is
+     * not iterated to the end, so the temporary files are deleted.
+     * @return An iterator over the ordered elements
+     */
+    @Override
+    public CloseableIterator<TSource> iterator() {
+        synchronized (this) {
+            if (ordered == null && externalSort != null && !isOrdered()) {
+                planner.recordExternalSort(source.size(), externalSort.getMemoryBudget());
+                return externalSort.sort(source);
+            }
+        }
+
+        var iterator = ordered().iterator();
+        return new CloseableIterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public TSource next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void close() {
+                // Nothing to release
+            }
+        };
+    }
+
+    /**
+     * Writes the ordered elements to the channel. If the query spills to disk, the sorted runs are merged while writing.
+     * @param channel The destination channel
+     * @param encoder The encoder that converts the elements into rows
+     * @return The amount of rows written, not counting the header
+     */
+    @Override
+    public long writeTo(WritableByteChannel channel, RowEncoder<TSource> encoder) {
+        try (var iterator = iterator()) {
+            return RowWriter.write(iterator, encoder, channel);
         }
     }
 
+    /**
+     * Writes the ordered elements to the stream. If the query spills to disk, the sorted runs are merged while writing.
+     * @param stream The destination stream
+     * @param encoder The encoder that converts the elements into rows
+     * @return The amount of rows written, not counting the header
+     */
+    @Override
+    public long writeTo(OutputStream stream, RowEncoder<TSource> encoder) {
+        try (var iterator = iterator()) {
+            return RowWriter.write(iterator, encoder, stream);
+        }
+    }
+
+    /**
+     * Writes the ordered elements to the writer. If the query spills to disk, the sorted runs are merged while writing.
+     * @param writer The destination writer
+     * @param encoder The encoder that converts the elements into rows
+     * @return The amount of rows written, not counting the header
+     */
+    @Override
+    public long writeTo(Writer writer, RowEncoder<TSource> encoder) {
+        try (var iterator = iterator()) {
+            return RowWriter.write(iterator, encoder, writer);
+        }
+    }
+
+    /**
+     * Orders the elements and returns a spliterator over them, which reports the queued orderings as its comparator.
+     * @return A spliterator over the ordered elements
+     */
+    @Override
+    public Spliterator<TSource> spliterator() {
+        return ordered().spliterator();
+    }
+
+    /**
+     * Queues an ordering that is less significant than the already queued ones. As the queued orderings change, the
+     * elements are ordered again by the next action that needs them ordered.
+     */
+    private synchronized void queueOrder(OrderBase<TSource, ?> order) {
+        orders.add(0, order);
+        ordered = null;
+    }
+
+    /**
+     * Creates a comparator that compares the elements by all the queued orderings, the first ordering being the most significant.
+     */
+    private Comparator<TSource> comparator() {
+        return (element, otherElement) -> {
+            for (int i = orders.size() - 1; i >= 0; i--) {
+                int compareResult = orders.get(i).compareElements(element, otherElement);
+                if (compareResult != 0) {
+                    return compareResult;
+                }
+            }
+
+            return 0;
+        };
+    }
+
+    /**
+     * Returns the queued orderings, the most significant first.
+     */
+    private List<OrderBase<TSource, ?>> priorityOrders() {
+        var priorityOrders = new ArrayList<>(orders);
+        Collections.reverse(priorityOrders);
+        return priorityOrders;
+    }
+
+    /**
+     * Checks whether the elements are already sorted by the queued orderings, because the source was sorted or the
+     * orderings were already executed.
+     */
+    private boolean isOrdered() {
+        if (orders.size() > sortOrder.size()) {
+            return false;
+        }
+
+        var priorityOrders = priorityOrders();
+        for (int i = 0; i < priorityOrders.size(); i++) {
+            if (!priorityOrders.get(i).isSameOrdering(sortOrder.get(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the query of the ordered elements, ordering them on the first call. The ordered query is published
+     * through a volatile field and never changes, while the source of this query is left as it was, so the elements
+     * are only ordered once however many actions are executed on the query, and the query can be shared between
+     * threads once it is configured.
+     */
+    private QueryBuilder<TSource> ordered() {
+        var ordered = this.ordered;
+        return ordered != null ? ordered : orderElements();
+    }
+
+    /**
+     * Orders the elements by the queued orderings, unless they are already ordered by them, and keeps the result
+     * until an other ordering is queued.
+     */
+    private synchronized QueryBuilder<TSource> orderElements() {
+        if (ordered != null) {
+            return ordered;
+        }
+
+        if (isOrdered()) {
+            ordered = keepSortOrder(derive(source));
+            return ordered;
+        }
+
+        ArrayList<TSource> orderedCollection;
+        if (externalSort != null) {
+            planner.recordExternalSort(source.size(), externalSort.getMemoryBudget());
+            long bytes = MemoryBudget.estimateListBytes(source.size()) + MemoryBudget.estimateListBytes(externalSort.getMemoryBudget());
+            var reservation = planner.reserve(bytes, "External ordering");
+            try (reservation; var iterator = externalSort.sort(source)) {
+                orderedCollection = new ArrayList<>(source.size());
+                iterator.forEachRemaining(orderedCollection::add);
+            }
+        } else {
+            var sorter = planner.sorter(priorityOrders(), source.size(), pool, parallelThreshold);
+            var reservation = planner.reserve(sortBytes(), "Ordering");
+            try (reservation) {
+                orderedCollection = sorter.sort(source);
+            }
+        }
+
+        var result = derive(orderedCollection);
+        result.sortOrder = priorityOrders();
+        result.distinct = distinct;
+        ordered = result;
+        return result;
+    }
+
+    @Override
+    public QueryBuilder<TSource> select() {
+        return ordered().select();
+    }
+
     @Override
     public <TTarget> QueryBuilder<TTarget> select(Func1<TSource, TTarget> converter) {
-        orderElements();
-        return super.select(converter);
+        return ordered().select(converter);
+    }
+
+    @Override
+    public QueryBuilder<TSource> selectDistinct() {
+        return ordered().selectDistinct();
     }
 
     @Override
     public <TTarget> QueryBuilder<TTarget> selectDistinct(Func1<TSource, TTarget> converter) {
-        orderElements();
-        return super.selectDistinct(converter);
+        return ordered().selectDistinct(converter);
     }
 
+    /**
+     * Returns a copy of the ordered elements, so the memoized ordering cannot be changed through the result.
+     * @return The ordered elements as a new List
+     */
     @Override
     public List<TSource> toList() {
-        orderElements();
-        return super.toList();
+        return new ArrayList<>(ordered().toList());
     }
 
     @Override
     public <TKey, TElement> Map<TKey, TElement> toMap(Func1<TSource, TKey> keyGenerator, Func1<TSource, TElement> elementGenerator) {
-        orderElements();
-        return super.toMap(keyGenerator, elementGenerator);
+        return ordered().toMap(keyGenerator, elementGenerator);
+    }
+
+    @Override
+    public <TElement> IntObjectMap<TElement> toIntMap(ToIntFunc1<TSource> keyGenerator, Func1<TSource, TElement> elementGenerator) {
+        return ordered().toIntMap(keyGenerator, elementGenerator);
+    }
+
+    @Override
+    public <TElement> LongObjectMap<TElement> toLongMap(ToLongFunc1<TSource> keyGenerator, Func1<TSource, TElement> elementGenerator) {
+        return ordered().toLongMap(keyGenerator, elementGenerator);
+    }
+
+    @Override
+    public IntObjectMap<List<TSource>> toIntLookup(ToIntFunc1<TSource> keyGenerator) {
+        return ordered().toIntLookup(keyGenerator);
+    }
+
+    @Override
+    public LongObjectMap<List<TSource>> toLongLookup(ToLongFunc1<TSource> keyGenerator) {
+        return ordered().toLongLookup(keyGenerator);
     }
 
     @Override
     public Set<TSource> toSet() {
-        orderElements();
-        return super.toSet();
+        return ordered().toSet();
     }
 
     @Override
     public TSource[] toArray() {
-        orderElements();
-        return super.toArray();
+        return ordered().toArray();
+    }
+
+    @Override
+    public TSource first() {
+        return ordered().first();
+    }
+
+    @Override
+    public TSource first(Predicate1<TSource> condition) {
+        return ordered().first(condition);
+    }
+
+    @Override
+    public TSource firstOrDefault() {
+        return ordered().firstOrDefault();
+    }
+
+    @Override
+    public TSource firstOrDefault(Predicate1<TSource> condition) {
+        return ordered().firstOrDefault(condition);
+    }
+
+    @Override
+    public TSource last() {
+        return ordered().last();
+    }
+
+    @Override
+    public TSource last(Predicate1<TSource> condition) {
+        return ordered().last(condition);
+    }
+
+    @Override
+    public TSource lastOrDefault() {
+        return ordered().lastOrDefault();
+    }
+
+    @Override
+    public TSource lastOrDefault(Predicate1<TSource> condition) {
+        return ordered().lastOrDefault(condition);
     }
 
     @Override
     public QueryBuilder<TSource> skip(int amount) {
-        orderElements();
-        return super.skip(amount);
+        return ordered().skip(amount);
     }
 
     @Override
     public QueryBuilder<TSource> skipLast(int amount) {
-        orderElements();
-        return super.skipLast(amount);
+        return ordered().skipLast(amount);
     }
 
+    /**
+     * Takes the first elements of the ordering. If the planner finds that only a small part of the elements is taken,
+     * they are selected with a bounded heap instead of ordering every element.
+     * @param amount The amount of elements to take
+     * @return A QueryBuilder containing the first elements
+     */
     @Override
     public QueryBuilder<TSource> take(int amount) {
-        orderElements();
-        return super.take(amount);
+        synchronized (this) {
+            if (ordered == null && !isOrdered() && externalSort == null && planner.planTopK(amount, source.size())) {
+                var reservation = planner.reserve(3 * MemoryBudget.estimateListBytes(amount), "Top-k ordering");
+                try (reservation) {
+                    var result = derive(topElements(amount));
+                    result.sortOrder = priorityOrders();
+                    result.distinct = distinct;
+                    return result;
+                }
+            }
+        }
+
+        return ordered().take(amount);
+    }
+
+    /**
+     * Estimates the size of the buffers of the in-memory sort: the selected properties of each ordering, the
+     * permutation and its merge buffer, and the sorted list.
+     */
+    private long sortBytes() {
+        long size = source.size();
+        return MemoryBudget.estimateListBytes(size) * (orders.size() + 1) + 2 * Integer.BYTES * size;
+    }
+
+    /**
+     * Selects the first amount elements of the ordering in a heap that holds at most amount elements. Elements that
+     * are equal in every ordering keep their order, as with the full sort.
+     */
+    private ArrayList<TSource> topElements(int amount) {
+        var elementComparator = comparator();
+        Comparator<Integer> indexComparator = (index, otherIndex) -> {
+            int compareResult = elementComparator.compare(source.get(index), source.get(otherIndex));
+            return compareResult != 0 ? compareResult : Integer.compare(index, otherIndex);
+        };
+
+        var heap = new PriorityQueue<Integer>(amount, indexComparator.reversed());
+        for (int i = 0; i < source.size(); i++) {
+            if (heap.size() < amount) {
+                heap.add(i);
+            } else if (indexComparator.compare(i, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+
+        var indices = new ArrayList<>(heap);
+        indices.sort(indexComparator);
+        var elements = new ArrayList<TSource>(amount);
+        for (int index : indices) {
+            elements.add(source.get(index));
+        }
+
+        return elements;
     }
 
     @Override
     public QueryBuilder<TSource> takeLast(int amount) {
-        orderElements();
-        return super.takeLast(amount);
+        return ordered().takeLast(amount);
     }
 
     @Override
     public <TResult> QueryBuilder<TResult> selectMany(Func1<TSource, Collection<TResult>> collectionSelector) {
-        orderElements();
-        return super.selectMany(collectionSelector);
+        return ordered().selectMany(collectionSelector);
     }
 
     @Override
     public <TResult, TCollection> QueryBuilder<TResult> selectMany(Func1<TSource, Collection<TCollection>> collectionSelector, Func2<TSource, TCollection, TResult> converter) {
-        orderElements();
-        return super.selectMany(collectionSelector, converter);
+        return ordered().selectMany(collectionSelector, converter);
+    }
+
+    @Override
+    public <TProperty extends Comparable<TProperty>> QueryBuilder<TSource> whereBetween(Func1<TSource, TProperty> selector, TProperty min, TProperty max) {
+        return ordered().whereBetween(selector, min, max);
+    }
+
+    @Override
+    public IntColumn selectInt(ToIntFunc1<TSource> selector) {
+        return ordered().selectInt(selector);
+    }
+
+    @Override
+    public QueryBuilder<TSource> whereIntBetween(ToIntFunc1<TSource> selector, int min, int max) {
+        return ordered().whereIntBetween(selector, min, max);
+    }
+
+    @Override
+    public List<TSource> slice(int from, int to) {
+        return ordered().slice(from, to);
+    }
+
+    @Override
+    public List<TSource> page(int pageIndex, int pageSize) {
+        return ordered().page(pageIndex, pageSize);
+    }
+
+    /**
+     * Orders the elements once and creates a pager that finds each page by the last element of the previous page
+     * using a binary search, without ordering again.
+     * @return A KeysetPager over the ordered elements
+     */
+    public KeysetPager<TSource> toPager() {
+        return new KeysetPager<>(ordered().toList(), comparator());
+    }
+
+    @Override
+    public <TAccumulate> QueryBuilder<TAccumulate> scan(TAccumulate seed, Func2<TAccumulate, TSource, TAccumulate> accumulator) {
+        return ordered().scan(seed, accumulator);
+    }
+
+    @Override
+    public WindowBuilder<TSource> slidingWindow(int size) {
+        return ordered().slidingWindow(size);
+    }
+
+    @Override
+    public WindowBuilder<TSource> tumblingWindow(int size) {
+        return ordered().tumblingWindow(size);
+    }
+
+    @Override
+    public <TKey> QueryBuilder<TSource> unionBy(Collection<TSource> collection, Func1<TSource, TKey> keySelector) {
+        return ordered().unionBy(collection, keySelector);
+    }
+
+    @Override
+    public <TKey> QueryBuilder<TSource> intersectBy(Collection<TSource> collection, Func1<TSource, TKey> keySelector) {
+        return ordered().intersectBy(collection, keySelector);
+    }
+
+    @Override
+    public <TKey> QueryBuilder<TSource> exceptBy(Collection<TSource> collection, Func1<TSource, TKey> keySelector) {
+        return ordered().exceptBy(collection, keySelector);
+    }
+
+    @Override
+    public <TKey extends Comparable<TKey>> QueryBuilder<TSource> mergeUnionBy(Collection<TSource> collection, Func1<TSource, TKey> keySelector) {
+        return ordered().mergeUnionBy(collection, keySelector);
+    }
+
+    @Override
+    public <TKey extends Comparable<TKey>> QueryBuilder<TSource> mergeIntersectBy(Collection<TSource> collection, Func1<TSource, TKey> keySelector) {
+        return ordered().mergeIntersectBy(collection, keySelector);
+    }
+
+    @Override
+    public <TKey extends Comparable<TKey>> QueryBuilder<TSource> mergeExceptBy(Collection<TSource> collection, Func1<TSource, TKey> keySelector) {
+        return ordered().mergeExceptBy(collection, keySelector);
+    }
+
+    @Override
+    public <TOther, TKey> QueryBuilder<TSource> whereExists(Collection<TOther> collection, Func1<TSource, TKey> keySelector, Func1<TOther, TKey> otherKeySelector) {
+        return ordered().whereExists(collection, keySelector, otherKeySelector);
+    }
+
+    @Override
+    public <TOther, TKey> QueryBuilder<TSource> whereExists(Collection<TOther> collection, Func1<TSource, TKey> keySelector, Func1<TOther, TKey> otherKeySelector, double falsePositiveRate) {
+        return ordered().whereExists(collection, keySelector, otherKeySelector, falsePositiveRate);
+    }
+
+    @Override
+    public <TOther, TKey> QueryBuilder<TSource> whereNotExists(Collection<TOther> collection, Func1<TSource, TKey> keySelector, Func1<TOther, TKey> otherKeySelector) {
+        return ordered().whereNotExists(collection, keySelector, otherKeySelector);
+    }
+
+    @Override
+    public <TOther, TKey> QueryBuilder<TSource> whereNotExists(Collection<TOther> collection, Func1<TSource, TKey> keySelector, Func1<TOther, TKey> otherKeySelector, double falsePositiveRate) {
+        return ordered().whereNotExists(collection, keySelector, otherKeySelector, falsePositiveRate);
+    }
+
+    @Override
+    public <TOther, TKey, TResult> QueryBuilder<TResult> leftJoin(Collection<TOther> collection, Func1<TSource, TKey> keySelector,
+                                                                 Func1<TOther, TKey> otherKeySelector, Func2<TSource, TOther, TResult> converter) {
+        return ordered().leftJoin(collection, keySelector, otherKeySelector, converter);
+    }
+
+    @Override
+    public <TOther, TKey, TResult> QueryBuilder<TResult> fullJoin(Collection<TOther> collection, Func1<TSource, TKey> keySelector,
+                                                                 Func1<TOther, TKey> otherKeySelector, Func2<TSource, TOther, TResult> converter) {
+        return ordered().fullJoin(collection, keySelector, otherKeySelector, converter);
+    }
+
+    @Override
+    public <TOther, TKey, TResult> QueryBuilder<TResult> groupJoin(Collection<TOther> collection, Func1<TSource, TKey> keySelector,
+                                                                  Func1<TOther, TKey> otherKeySelector, Func2<TSource, List<TOther>, TResult> converter) {
+        return ordered().groupJoin(collection, keySelector, otherKeySelector, converter);
+    }
+
+    @Override
+    public <TKey, TResult> QueryBuilder<TResult> groupBy(Func1<TSource, TKey> keySelector, Func1<Grouping<TKey, TSource>, TResult> resultSelector) {
+        return ordered().groupBy(keySelector, resultSelector);
+    }
+
+    @Override
+    public <TKey, TResult> QueryBuilder<TResult> groupBy(Func1<TSource, TKey> keySelector, Func1<Grouping<TKey, TSource>, TResult> resultSelector,
+                                                         int memoryBudget, ElementSerializer<TSource> serializer) {
+        return ordered().groupBy(keySelector, resultSelector, memoryBudget, serializer);
     }
 
     public OrderedQueryBuilder<TSource> forEach(Action<TSource> action) {
@@ -0,0 +1,39 @@
+package linq.query;
+
+import java.util.Locale;
+
+/**
+ * A strategy chosen by an ExecutionPlanner, along with the sizes it was chosen for.
+ */
+public class PlanStep {
+    private Strategy strategy;
+    private String format;
+    private Object[] args;
+
+    PlanStep(Strategy strategy, String format, Object... args) {
+        this.strategy = strategy;
+        this.format = format;
+        this.args = args;
+    }
+
+    /**
+     * Returns the chosen strategy.
+     * @return The strategy
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Returns the sizes and estimates the strategy was chosen by.
+     * @return The description of the decision
+     */
+    public String getDescription() {
+        return String.format(Locale.ROOT, format, args);
+    }
+
+    @Override
+    public String toString() {
+        return strategy + ": " + getDescription();
+    }
+}
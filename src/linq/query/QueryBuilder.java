@@ -2,13 +2,21 @@ package linq.query;
 
 import linq.lambda.Action;
 import linq.lambda.Func1;
+import linq.lambda.Predicate1;
+import linq.lambda.ToDoubleFunc1;
+import linq.lambda.ToIntFunc1;
+import linq.lambda.ToLongFunc1;
 import linq.orders.Direction;
 import linq.orders.OrderByComparable;
 import linq.orders.OrderByComparator;
+import linq.orders.OrderByDouble;
+import linq.orders.OrderByInt;
+import linq.orders.OrderByLong;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
 
 /**
  * Represents the default unordered query builder. Supports filtering and concatenation.
@@ -26,7 +34,7 @@ public class QueryBuilder<TSource> extends QueryBuilderBase<TSource> {
      * @return An OrderedQueryBuilder containing the collection and the queued ordering
      */
     public <TProperty extends Comparable<TProperty>> OrderedQueryBuilder<TSource> orderBy(Func1<TSource, TProperty> selector) {
-        return new OrderedQueryBuilder<>(source, new OrderByComparable<>(selector, Direction.ASCENDING));
+        return new OrderedQueryBuilder<>(this, new OrderByComparable<>(selector, Direction.ASCENDING));
     }
 
     /**
@@ -37,7 +45,7 @@ public class QueryBuilder<TSource> extends QueryBuilderBase<TSource> {
      * @return An OrderedQueryBuilder containing the collection and the queued ordering
      */
     public <TProperty> OrderedQueryBuilder<TSource> orderBy(Func1<TSource, TProperty> selector, Comparator<TProperty> comparator) {
-        return new OrderedQueryBuilder<>(source, new OrderByComparator<>(selector, Direction.ASCENDING, comparator));
+        return new OrderedQueryBuilder<>(this, new OrderByComparator<>(selector, Direction.ASCENDING, comparator));
     }
 
     /**
@@ -47,7 +55,7 @@ public class QueryBuilder<TSource> extends QueryBuilderBase<TSource> {
      * @return An OrderedQueryBuilder containing the collection and the queued ordering
      */
     public <TProperty extends Comparable<TProperty>> OrderedQueryBuilder<TSource> orderByDescending(Func1<TSource, TProperty> selector) {
-        return new OrderedQueryBuilder<>(source, new OrderByComparable<>(selector, Direction.DESCENDING));
+        return new OrderedQueryBuilder<>(this, new OrderByComparable<>(selector, Direction.DESCENDING));
     }
 
     /**
@@ -58,7 +66,61 @@ public class QueryBuilder<TSource> extends QueryBuilderBase<TSource> {
      * @return An OrderedQueryBuilder containing the collection and the queued ordering
      */
     public <TProperty> OrderedQueryBuilder<TSource> orderByDescending(Func1<TSource, TProperty> selector, Comparator<TProperty> comparator) {
-        return new OrderedQueryBuilder<>(source, new OrderByComparator<>(selector, Direction.DESCENDING, comparator));
+        return new OrderedQueryBuilder<>(this, new OrderByComparator<>(selector, Direction.DESCENDING, comparator));
+    }
+
+    /**
+     * Creates an OrderedQuery that orders the elements by the selected primitive int property ascending.
+     * @param selector The selector that selects the property
+     * @return An OrderedQueryBuilder containing the collection and the queued ordering
+     */
+    public OrderedQueryBuilder<TSource> orderByInt(ToIntFunc1<TSource> selector) {
+        return new OrderedQueryBuilder<>(this, new OrderByInt<>(selector, Direction.ASCENDING));
+    }
+
+    /**
+     * Creates an OrderedQuery that orders the elements by the selected primitive int property descending.
+     * @param selector The selector that selects the property
+     * @return An OrderedQueryBuilder containing the collection and the queued ordering
+     */
+    public OrderedQueryBuilder<TSource> orderByIntDescending(ToIntFunc1<TSource> selector) {
+        return new OrderedQueryBuilder<>(this, new OrderByInt<>(selector, Direction.DESCENDING));
+    }
+
+    /**
+     * Creates an OrderedQuery that orders the elements by the selected primitive long property ascending.
+     * @param selector The selector that selects the property
+     * @return An OrderedQueryBuilder containing the collection and the queued ordering
+     */
+    public OrderedQueryBuilder<TSource> orderByLong(ToLongFunc1<TSource> selector) {
+        return new OrderedQueryBuilder<>(this, new OrderByLong<>(selector, Direction.ASCENDING));
+    }
+
+    /**
+     * Creates an OrderedQuery that orders the elements by the selected primitive long property descending.
+     * @param selector The selector that selects the property
+     * @return An OrderedQueryBuilder containing the collection and the queued ordering
+     */
+    public OrderedQueryBuilder<TSource> orderByLongDescending(ToLongFunc1<TSource> selector) {
+        return new OrderedQueryBuilder<>(this, new OrderByLong<>(selector, Direction.DESCENDING));
+    }
+
+    /**
+     * Creates an OrderedQuery that orders the elements by the selected primitive double property ascending.
+     * @param selector The selector that selects the property
+     * @return An OrderedQueryBuilder containing the collection and the queued ordering
+     */
+    public OrderedQueryBuilder<TSource> orderByDouble(ToDoubleFunc1<TSource> selector) {
+        return new OrderedQueryBuilder<>(this, new OrderByDouble<>(selector, Direction.ASCENDING));
+    }
+
+    /**
+     * Creates an OrderedQuery that orders the elements by the selected primitive double property descending.
+     * @param selector The selector that selects the property
+     * @return An OrderedQueryBuilder containing the collection and the queued ordering
+     */
+    public OrderedQueryBuilder<TSource> orderByDoubleDescending(ToDoubleFunc1<TSource> selector) {
+        return new OrderedQueryBuilder<>(this, new OrderByDouble<>(selector, Direction.DESCENDING));
     }
 
     /**
@@ -67,7 +129,26 @@ public class QueryBuilder<TSource> extends QueryBuilderBase<TSource> {
      * @return A QueryBuilder containing the filtered collection
      */
     public QueryBuilder<TSource> where(Func1<TSource, Boolean> condition) {
-        return when(condition).thenFilter();
+        return where(Predicate1.of(condition));
+    }
+
+    /**
+     * Filters the collection leaving only the elements that are satisfying the given condition.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return A QueryBuilder containing the filtered collection
+     */
+    public QueryBuilder<TSource> where(Predicate1<TSource> condition) {
+        return keepSortOrder(deriveAndRecycle(planner.filter(source, condition)));
+    }
+
+    /**
+     * Sets the planner that chooses the algorithms of the operations on the query and the queries created from it.
+     * @param planner The planner
+     * @return The QueryBuilder
+     */
+    public QueryBuilder<TSource> withPlanner(ExecutionPlanner planner) {
+        this.planner = planner;
+        return this;
     }
 
     /**
@@ -77,6 +158,8 @@ public class QueryBuilder<TSource> extends QueryBuilderBase<TSource> {
      */
     public QueryBuilder<TSource> concat(Collection<TSource> collection) {
         source.addAll(collection);
+        sortOrder = List.of();
+        distinct = false;
         return this;
     }
 
@@ -87,6 +170,8 @@ public class QueryBuilder<TSource> extends QueryBuilderBase<TSource> {
      */
     public QueryBuilder<TSource> concat(QueryBuilderBase<TSource> queryBuilder) {
         source.addAll(queryBuilder.toList());
+        sortOrder = List.of();
+        distinct = false;
         return this;
     }
 
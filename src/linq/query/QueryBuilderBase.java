@@ -1,11 +1,33 @@
 package linq.query;
 
 import linq.Enumerable;
+import linq.aggregates.HyperLogLog;
+import linq.aggregates.QuantileSketch;
+import linq.aggregates.Statistics;
+import linq.collections.BloomFilter;
+import linq.collections.IntColumn;
+import linq.io.ElementSerializer;
+import linq.io.QuerySnapshot;
+import linq.io.RowEncoder;
+import linq.io.RowWriter;
 import linq.lambda.Action;
 import linq.lambda.Func1;
 import linq.lambda.Func2;
+import linq.lambda.Predicate1;
+import linq.lambda.ToDoubleFunc1;
+import linq.lambda.ToIntFunc1;
+import linq.lambda.ToLongFunc1;
+import linq.orders.Direction;
+import linq.orders.OrderBase;
+import linq.orders.OrderByComparable;
+import linq.orders.OrderByComparator;
+import linq.orders.Selection;
 import linq.exceptions.TooManyElementsException;
 
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -13,9 +35,94 @@ import java.util.*;
  * @param <TSource> The type of the elements of the source collection
  */
 public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
+    /**
+     * The orderings the underlying collection is known to be sorted by, the most significant first.
+     */
+    List<OrderBase<TSource, ?>> sortOrder;
+
+    /**
+     * Whether the elements of the underlying collection are known to be distinct.
+     */
+    boolean distinct;
+
+    /**
+     * The planner that chooses the algorithms of the operations on the query.
+     */
+    ExecutionPlanner planner;
 
     QueryBuilderBase(Collection<TSource> source) {
         super(source);
+        sortOrder = source instanceof SortedSet ? List.of(orderOf((SortedSet<TSource>) source)) : List.of();
+        distinct = source instanceof Set;
+        planner = ExecutionPlanner.getDefault();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <TSource> OrderBase<TSource, ?> orderOf(SortedSet<TSource> sortedSet) {
+        if (sortedSet.comparator() == null) {
+            return new OrderByComparable(Func1.identity(), Direction.ASCENDING);
+        }
+
+        return new OrderByComparator<>(Func1.identity(), Direction.ASCENDING, (Comparator<TSource>) sortedSet.comparator());
+    }
+
+    /**
+     * Marks the given QueryBuilder, whose elements keep their relative order from the underlying collection,
+     * as sorted the same way as the underlying collection. As its elements are a subset of the underlying collection,
+     * they are also distinct if the underlying elements are.
+     */
+    QueryBuilder<TSource> keepSortOrder(QueryBuilder<TSource> queryBuilder) {
+        queryBuilder.sortOrder = sortOrder;
+        queryBuilder.distinct = queryBuilder.distinct || distinct;
+        queryBuilder.planner = planner;
+        return queryBuilder;
+    }
+
+    private <TElement> QueryBuilder<TElement> markDistinct(QueryBuilder<TElement> queryBuilder) {
+        queryBuilder.distinct = true;
+        queryBuilder.planner = planner;
+        return queryBuilder;
+    }
+
+    /**
+     * Creates a QueryBuilder of the given elements that uses the planner of this query.
+     */
+    <TElement> QueryBuilder<TElement> derive(Collection<TElement> elements) {
+        var queryBuilder = new QueryBuilder<>(elements);
+        queryBuilder.planner = planner;
+        return queryBuilder;
+    }
+
+    /**
+     * Creates a QueryBuilder of a copy of the given temporary list, and gives the list back to the arena of the planner.
+     */
+    <TElement> QueryBuilder<TElement> deriveAndRecycle(ArrayList<TElement> elements) {
+        var queryBuilder = derive(elements);
+        planner.recycle(elements);
+        return queryBuilder;
+    }
+
+    /**
+     * Checks whether the elements are known to be sorted by the natural ordering of the selected property, so the
+     * elements with equal properties are next to each other.
+     */
+    private boolean isSortedBy(Func1<TSource, ?> selector) {
+        return !sortOrder.isEmpty() && sortOrder.get(0).ordersBy(selector, null);
+    }
+
+    /**
+     * Returns a spliterator over the elements. Besides being sized and ordered, it reports whether the elements are
+     * known to be distinct, and whether they are known to be sorted, along with the comparator of the sort order.
+     * @return A spliterator over the elements
+     */
+    @Override
+    public Spliterator<TSource> spliterator() {
+        var spliterator = super.spliterator();
+        if (sortOrder.isEmpty() && !distinct) {
+            return spliterator;
+        }
+
+        return new QuerySpliterator<>(spliterator, distinct, sortOrder);
     }
 
     /**
@@ -25,13 +132,13 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return A QueryBuilder containing the projected collection
      */
     public <TTarget> QueryBuilder<TTarget> select(Func1<TSource, TTarget> converter) {
-        var convertResult = new ArrayList<TTarget>();
+        var convertResult = planner.<TTarget>scratchList();
 
         for (var element : source) {
             convertResult.add(converter.execute(element));
         }
 
-        return new QueryBuilder<>(convertResult);
+        return deriveAndRecycle(convertResult);
     }
 
     /**
@@ -39,7 +146,8 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return A QueryBuilder containing the elements of the original collection
      */
     public QueryBuilder<TSource> select() {
-        return select(e -> e);
+        var result = select(Func1.identity());
+        return keepSortOrder(result);
     }
 
     /**
@@ -49,15 +157,41 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return A QueryBuilder containing the projected collection
      */
     public <TTarget> QueryBuilder<TTarget> selectDistinct(Func1<TSource, TTarget> converter) {
-        var convertResult = new ArrayList<TTarget>();
-
-        for (var element : source) {
-            if (!convertResult.contains(converter.execute(element))) {
-                convertResult.add(converter.execute(element));
+        var strategy = planner.planDistinct(source.size(), distinct && converter == Func1.identity(), isSortedBy(converter));
+        try (var reservation = planner.reserve(strategy == Strategy.HASH_DISTINCT ? MemoryBudget.estimateHashBytes(source.size()) : 0, "Distinct")) {
+            var convertResult = planner.<TTarget>resultList(reservation);
+            if (strategy == Strategy.ALREADY_DISTINCT) {
+                for (var element : source) {
+                    convertResult.add(converter.execute(element));
+                }
+            } else if (strategy == Strategy.SORTED_DISTINCT) {
+                for (var element : source) {
+                    var converted = converter.execute(element);
+                    if (convertResult.isEmpty() || !Objects.equals(convertResult.get(convertResult.size() - 1), converted)) {
+                        convertResult.add(converted);
+                    }
+                }
+            } else if (strategy == Strategy.LINEAR_DISTINCT) {
+                for (var element : source) {
+                    var converted = converter.execute(element);
+                    if (!convertResult.contains(converted)) {
+                        convertResult.add(converted);
+                    }
+                }
+            } else {
+                var seen = planner.<TTarget>scratchSet(source.size());
+                for (var element : source) {
+                    var converted = converter.execute(element);
+                    if (seen.add(converted)) {
+                        convertResult.add(converted);
+                    }
+                }
+
+                planner.recycle(seen);
             }
-        }
 
-        return new QueryBuilder<>(convertResult);
+            return markDistinct(deriveAndRecycle(convertResult));
+        }
     }
 
     /**
@@ -65,7 +199,8 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return A QueryBuilder containing the projected collection
      */
     public QueryBuilder<TSource> selectDistinct() {
-        return selectDistinct(e -> e);
+        var result = selectDistinct(Func1.identity());
+        return keepSortOrder(result);
     }
 
     /**
@@ -74,8 +209,17 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return Whether any elements satisfies the given condition
      */
     public boolean any(Func1<TSource, Boolean> condition) {
+        return any(Predicate1.of(condition));
+    }
+
+    /**
+     * Checks whether any element in the collection satisfies the given condition.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return Whether any elements satisfies the given condition
+     */
+    public boolean any(Predicate1<TSource> condition) {
         for (var element : source) {
-            if (condition.execute(element)) {
+            if (condition.test(element)) {
                 return true;
             }
         }
@@ -89,8 +233,17 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return Whether all the elements satisfy the given condition
      */
     public boolean all(Func1<TSource, Boolean> condition) {
+        return all(Predicate1.of(condition));
+    }
+
+    /**
+     * Checks whether all of the elements in the collection satisfy the given condition.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return Whether all the elements satisfy the given condition
+     */
+    public boolean all(Predicate1<TSource> condition) {
         for (var element : source) {
-            if (!condition.execute(element)) {
+            if (!condition.test(element)) {
                 return false;
             }
         }
@@ -104,6 +257,15 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return True if no elements satisfy the condition
      */
     public boolean none(Func1<TSource, Boolean> condition) {
+        return none(Predicate1.of(condition));
+    }
+
+    /**
+     * Check if no elements satisfy the given condition.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return True if no elements satisfy the condition
+     */
+    public boolean none(Predicate1<TSource> condition) {
         return !any(condition);
     }
 
@@ -125,8 +287,17 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The first element that satisfies the collection
      */
     public TSource first(Func1<TSource, Boolean> condition) {
+        return first(Predicate1.of(condition));
+    }
+
+    /**
+     * Returns the first element of the collection that satisfies the given condition.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return The first element that satisfies the collection
+     */
+    public TSource first(Predicate1<TSource> condition) {
         for (var element : source) {
-            if (condition.execute(element)) {
+            if (condition.test(element)) {
                 return element;
             }
         }
@@ -154,6 +325,15 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The first element that satisfies the condition
      */
     public TSource firstOrDefault(Func1<TSource, Boolean> condition) {
+        return firstOrDefault(Predicate1.of(condition));
+    }
+
+    /**
+     * Returns the first element that satisfies the given condition or null if none satisfy the condition.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return The first element that satisfies the condition
+     */
+    public TSource firstOrDefault(Predicate1<TSource> condition) {
         try {
             return first(condition);
         } catch (NoSuchElementException e) {
@@ -181,9 +361,18 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The last element that satisfies the condition
      */
     public TSource last(Func1<TSource, Boolean> condition) {
+        return last(Predicate1.of(condition));
+    }
+
+    /**
+     * Returns the last element of the collection that satisfies the given condition.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return The last element that satisfies the condition
+     */
+    public TSource last(Predicate1<TSource> condition) {
         var satisfyingElements = new ArrayList<TSource>();
         for (var element : source) {
-            if (condition.execute(element)) {
+            if (condition.test(element)) {
                 satisfyingElements.add(element);
             }
         }
@@ -215,6 +404,15 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The last element that satisfies the condition
      */
     public TSource lastOrDefault(Func1<TSource, Boolean> condition) {
+        return lastOrDefault(Predicate1.of(condition));
+    }
+
+    /**
+     * Returns the last element that satisfies the given condition or null if none satisfy it.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return The last element that satisfies the condition
+     */
+    public TSource lastOrDefault(Predicate1<TSource> condition) {
         try {
             return last(condition);
         } catch (NoSuchElementException e) {
@@ -246,9 +444,18 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The only element that satisfies the condition
      */
     public TSource single(Func1<TSource, Boolean> condition) {
+        return single(Predicate1.of(condition));
+    }
+
+    /**
+     * Returns the only element that satisfies the given condition. Throws exception if not exactly 1 element matches the condition.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return The only element that satisfies the condition
+     */
+    public TSource single(Predicate1<TSource> condition) {
         var satisfyingElements = new ArrayList<TSource>();
         for (var element : source) {
-            if (condition.execute(element)) {
+            if (condition.test(element)) {
                 satisfyingElements.add(element);
             }
         }
@@ -284,6 +491,15 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The only element that satisfies the condition
      */
     public TSource singleOrDefault(Func1<TSource, Boolean> condition) {
+        return singleOrDefault(Predicate1.of(condition));
+    }
+
+    /**
+     * Returns the only element that satisfies the given condition or null if none satisfy. Throws exception if more than 1 element satisfies the condition.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return The only element that satisfies the condition
+     */
+    public TSource singleOrDefault(Predicate1<TSource> condition) {
         try {
             return single(condition);
         } catch (NoSuchElementException e) {
@@ -298,6 +514,11 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The smallest element in the collection
      */
     public TSource min() {
+        int sortedIndex = sortedExtremeIndex(Func1.identity(), null, 1);
+        if (sortedIndex >= 0) {
+            return source.get(sortedIndex);
+        }
+
         return aggregate(first(),
                 (min, element) -> ((Comparable<TSource>)min).compareTo(element) < 0 ? min : element);
     }
@@ -308,6 +529,11 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The smallest element in the collection
      */
     public TSource min(Comparator<TSource> comparator) {
+        int sortedIndex = sortedExtremeIndex(Func1.identity(), comparator, 1);
+        if (sortedIndex >= 0) {
+            return source.get(sortedIndex);
+        }
+
         return aggregate(first(),
                 (min, element) -> comparator.compare(min, element) < 0 ? min : element);
     }
@@ -319,9 +545,7 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The element with the smallest selected property
      */
     public <TProperty extends Comparable<TProperty>> TProperty min(Func1<TSource, TProperty> selector) {
-        return aggregate(first(),
-                (min, element) -> selector.execute(min).compareTo(selector.execute(element)) < 0 ? min : element,
-                selector);
+        return selector.execute(extremeBy(selector, null, 1));
     }
 
     /**
@@ -332,19 +556,15 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The element with the smallest selected property
      */
     public <TProperty> TProperty min(Func1<TSource, TProperty> selector, Comparator<TProperty> comparator) {
-        return aggregate(first(),
-                (min, element) -> comparator.compare(selector.execute(min), selector.execute(element)) < 0 ? min : element,
-                selector);
+        return selector.execute(extremeBy(selector, comparator, 1));
     }
 
     public <TProperty extends Comparable<TProperty>> TSource minBy(Func1<TSource, TProperty> selector) {
-        return aggregate(first(),
-                (min, element) -> selector.execute(min).compareTo(selector.execute(element)) < 0 ? min : element);
+        return extremeBy(selector, null, 1);
     }
 
     public <TProperty> TSource minBy(Func1<TSource, TProperty> selector, Comparator<TProperty> comparator) {
-        return aggregate(first(),
-                (min, element) -> comparator.compare(selector.execute(min), selector.execute(element)) < 0 ? min : element);
+        return extremeBy(selector, comparator, 1);
     }
 
     /**
@@ -352,6 +572,11 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The largest element in the collection
      */
     public TSource max() {
+        int sortedIndex = sortedExtremeIndex(Func1.identity(), null, -1);
+        if (sortedIndex >= 0) {
+            return source.get(sortedIndex);
+        }
+
         return aggregate(first(),
                 (max, element) -> ((Comparable<TSource>)max).compareTo(element) > 0 ? max : element);
     }
@@ -362,6 +587,11 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The largest element of the collection
      */
     public TSource max(Comparator<TSource> comparator) {
+        int sortedIndex = sortedExtremeIndex(Func1.identity(), comparator, -1);
+        if (sortedIndex >= 0) {
+            return source.get(sortedIndex);
+        }
+
         return aggregate(first(),
                 (max, element) -> comparator.compare(max, element) > 0 ? max : element);
     }
@@ -373,9 +603,7 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The element with the largest selected property
      */
     public <TProperty extends Comparable<TProperty>> TProperty max(Func1<TSource, TProperty> selector) {
-        return aggregate(first(), 
-            (max, element) -> selector.execute(max).compareTo(selector.execute(element)) > 0 ? max : element,
-            selector);
+        return selector.execute(extremeBy(selector, null, -1));
     }
 
     /**
@@ -386,19 +614,46 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The element with the largest selected property
      */
     public <TProperty> TProperty max(Func1<TSource, TProperty> selector, Comparator<TProperty> comparator) {
-        return aggregate(first(), 
-            (max, element) -> comparator.compare(selector.execute(max), selector.execute(element)) > 0 ? max : element,
-            selector);
+        return selector.execute(extremeBy(selector, comparator, -1));
     }
     
     public <TProperty extends Comparable<TProperty>> TSource maxBy(Func1<TSource, TProperty> selector) {
-        return aggregate(first(),
-            (max, element) -> selector.execute(max).compareTo(selector.execute(element)) > 0 ? max : element);
+        return extremeBy(selector, null, -1);
     }
 
     public <TProperty> TSource maxBy(Func1<TSource, TProperty> selector, Comparator<TProperty> comparator) {
-        return aggregate(first(),
-            (max, element) -> comparator.compare(selector.execute(max), selector.execute(element)) > 0 ? max : element);
+        return extremeBy(selector, comparator, -1);
+    }
+
+    /**
+     * Finds the element whose selected property is the smallest (direction 1) or the largest (direction -1).
+     * The selector is called once per element. Of the elements with equal properties the last one is returned.
+     * A null comparator means the natural ordering of Comparable properties.
+     */
+    @SuppressWarnings("unchecked")
+    private <TProperty> TSource extremeBy(Func1<TSource, TProperty> selector, Comparator<TProperty> comparator, int direction) {
+        int sortedIndex = sortedExtremeIndex(selector, comparator, direction);
+        if (sortedIndex >= 0) {
+            return source.get(sortedIndex);
+        }
+
+        if (comparator == null) {
+            comparator = (property, otherProperty) -> ((Comparable<TProperty>) property).compareTo(otherProperty);
+        }
+
+        var extreme = first();
+        var extremeProperty = selector.execute(extreme);
+
+        for (int i = 1; i < source.size(); i++) {
+            var element = source.get(i);
+            var property = selector.execute(element);
+            if (direction * comparator.compare(extremeProperty, property) >= 0) {
+                extreme = element;
+                extremeProperty = property;
+            }
+        }
+
+        return extreme;
     }
 
     /**
@@ -415,6 +670,15 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return The number of elements
      */
     public int count(Func1<TSource, Boolean> condition) {
+        return count(Predicate1.of(condition));
+    }
+
+    /**
+     * Returns the number of elements that satisfy the given condition.
+     * @param condition The condition to be checked, which returns a primitive boolean
+     * @return The number of elements
+     */
+    public int count(Predicate1<TSource> condition) {
         return when(condition).thenCount();
     }
 
@@ -454,6 +718,355 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
         return sum().doubleValue() / count();
     }
 
+    /**
+     * If the collection is known to be sorted by the given selector and comparator, finds the index of the element that
+     * min (direction 1) or max (direction -1) returns with a binary search, otherwise returns -1. Like extremeBy, of the
+     * elements with equal properties the last one is chosen.
+     */
+    private int sortedExtremeIndex(Func1<TSource, ?> selector, Comparator<?> comparator, int direction) {
+        if (source.isEmpty() || sortOrder.isEmpty() || !sortOrder.get(0).ordersBy(selector, comparator)) {
+            return -1;
+        }
+
+        var order = sortOrder.get(0);
+        boolean extremeIsFirst = (order.getDirection() == Direction.ASCENDING) == (direction == 1);
+        if (!extremeIsFirst) {
+            return source.size() - 1;
+        }
+
+        var extreme = source.get(0);
+        return firstIndex(element -> order.compareElements(extreme, element) != 0) - 1;
+    }
+
+    /**
+     * Finds the first index whose element satisfies the condition with a binary search. The condition must be false
+     * for a prefix of the collection and true for the rest of it.
+     */
+    private int firstIndex(Func1<TSource, Boolean> condition) {
+        int low = 0;
+        int high = source.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (condition.execute(source.get(middle))) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Filters the elements whose selected property is between the given bounds (inclusive). If the collection is known
+     * to be sorted by the selected property, the bounds are found with a binary search instead of checking every element.
+     * @param selector The selector that selects the property, the same instance the collection was ordered by
+     * @param min The lower bound
+     * @param max The upper bound
+     * @param <TProperty> The type of the property
+     * @return A QueryBuilder containing the elements in the range
+     */
+    public <TProperty extends Comparable<TProperty>> QueryBuilder<TSource> whereBetween(Func1<TSource, TProperty> selector, TProperty min, TProperty max) {
+        if (sortOrder.isEmpty() || !sortOrder.get(0).ordersBy(selector, null)) {
+            return keepSortOrder(when(e -> {
+                var property = selector.execute(e);
+                return property.compareTo(min) >= 0 && property.compareTo(max) <= 0;
+            }).thenFilter());
+        }
+
+        int from;
+        int to;
+        if (sortOrder.get(0).getDirection() == Direction.ASCENDING) {
+            from = firstIndex(e -> selector.execute(e).compareTo(min) >= 0);
+            to = firstIndex(e -> selector.execute(e).compareTo(max) > 0);
+        } else {
+            from = firstIndex(e -> selector.execute(e).compareTo(max) <= 0);
+            to = firstIndex(e -> selector.execute(e).compareTo(min) < 0);
+        }
+
+        return keepSortOrder(derive(source.subList(from, Math.max(from, to))));
+    }
+
+    /**
+     * Computes the count, sum, minimum, maximum, average and variance of the selected property in a single pass.
+     * The selector is called once per element.
+     * @param selector The selector that selects the property
+     * @param <TProperty> The type of the selected property
+     * @return The statistics of the selected property
+     */
+    public <TProperty extends Number> Statistics stats(Func1<TSource, TProperty> selector) {
+        var statistics = new Statistics();
+        for (var element : source) {
+            statistics.add(selector.execute(element).doubleValue());
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Computes the count, sum, minimum, maximum, average and variance of the selected primitive property in a single
+     * pass, without boxing the selected values.
+     * @param selector The selector that selects the property
+     * @return The statistics of the selected property
+     */
+    public Statistics statsDouble(ToDoubleFunc1<TSource> selector) {
+        var statistics = new Statistics();
+        for (var element : source) {
+            statistics.add(selector.applyAsDouble(element));
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Selects a primitive int property of every element into a column, which can be filtered and aggregated without boxing.
+     * @param selector The selector that selects the property
+     * @return The column of the selected properties, in the order of the elements
+     */
+    public IntColumn selectInt(ToIntFunc1<TSource> selector) {
+        var values = new int[source.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = selector.applyAsInt(source.get(i));
+        }
+
+        return new IntColumn(values);
+    }
+
+    /**
+     * Filters the elements whose selected primitive int property is between the given bounds (inclusive). The properties
+     * are selected into a column first, and compared in a loop without branches.
+     * @param selector The selector that selects the property
+     * @param min The lower bound
+     * @param max The upper bound
+     * @return A QueryBuilder containing the elements in the range
+     */
+    public QueryBuilder<TSource> whereIntBetween(ToIntFunc1<TSource> selector, int min, int max) {
+        var indices = selectInt(selector).indicesBetween(min, max);
+        var elements = new ArrayList<TSource>(indices.length);
+        for (int index : indices) {
+            elements.add(source.get(index));
+        }
+
+        return keepSortOrder(derive(elements));
+    }
+
+    /**
+     * Returns the n-th smallest selected property (0 based), without sorting the elements: the properties are partitioned
+     * until the n-th one is found, in linear time on average. If the collection is known to be sorted by the selector,
+     * the property is read directly.
+     * @param selector The selector that selects the property
+     * @param n The index of the property in ascending order
+     * @param <TProperty> The type of the property
+     * @return The n-th smallest property
+     */
+    @SuppressWarnings("unchecked")
+    public <TProperty extends Comparable<TProperty>> TProperty nth(Func1<TSource, TProperty> selector, int n) {
+        validateNotEmpty();
+        if (!sortOrder.isEmpty() && sortOrder.get(0).ordersBy(selector, null)) {
+            if (n < 0 || n >= source.size()) {
+                throw new IllegalArgumentException("The index must be a natural number that is less than the amount of elements.");
+            }
+
+            int index = sortOrder.get(0).getDirection() == Direction.ASCENDING ? n : source.size() - 1 - n;
+            return selector.execute(source.get(index));
+        }
+
+        var properties = (TProperty[]) new Comparable<?>[source.size()];
+        for (int i = 0; i < properties.length; i++) {
+            properties[i] = selector.execute(source.get(i));
+        }
+
+        return Selection.select(properties, n, Comparator.naturalOrder());
+    }
+
+    /**
+     * Returns the median of the selected property, without sorting the elements. If the amount of elements is even,
+     * the smaller of the two middle properties is returned.
+     * @param selector The selector that selects the property
+     * @param <TProperty> The type of the property
+     * @return The median of the property
+     */
+    public <TProperty extends Comparable<TProperty>> TProperty median(Func1<TSource, TProperty> selector) {
+        validateNotEmpty();
+        return nth(selector, (source.size() - 1) / 2);
+    }
+
+    /**
+     * Returns the smallest selected property that is at least as large as the given percent of the properties
+     * (nearest rank), without sorting the elements.
+     * @param selector The selector that selects the property
+     * @param percentile The percentile between 0 and 100, e.g. 99 for the 99th percentile
+     * @param <TProperty> The type of the property
+     * @return The percentile of the property
+     */
+    public <TProperty extends Comparable<TProperty>> TProperty percentile(Func1<TSource, TProperty> selector, double percentile) {
+        validatePercentile(percentile);
+        validateNotEmpty();
+        return nth(selector, Math.max(0, (int) Math.ceil(percentile / 100 * source.size()) - 1));
+    }
+
+    /**
+     * Returns the n-th smallest selected primitive int property (0 based), without boxing the properties or sorting them.
+     * @param selector The selector that selects the property
+     * @param n The index of the property in ascending order
+     * @return The n-th smallest property
+     */
+    public int nthInt(ToIntFunc1<TSource> selector, int n) {
+        validateNotEmpty();
+        return Selection.select(selectInt(selector).toArray(), n);
+    }
+
+    /**
+     * Returns the n-th smallest selected primitive double property (0 based), without boxing the properties or sorting them.
+     * @param selector The selector that selects the property, it must not return NaN
+     * @param n The index of the property in ascending order
+     * @return The n-th smallest property
+     */
+    public double nthDouble(ToDoubleFunc1<TSource> selector, int n) {
+        validateNotEmpty();
+        return Selection.select(selectDoubles(selector), n);
+    }
+
+    /**
+     * Returns the median of the selected primitive double property, the average of the two middle properties if the
+     * amount of elements is even.
+     * @param selector The selector that selects the property, it must not return NaN
+     * @return The median of the property
+     */
+    public double medianDouble(ToDoubleFunc1<TSource> selector) {
+        return percentileDouble(selector, 50);
+    }
+
+    /**
+     * Returns the percentile of the selected primitive double property, interpolating linearly between the two
+     * properties closest to the percentile.
+     * @param selector The selector that selects the property, it must not return NaN
+     * @param percentile The percentile between 0 and 100, e.g. 99 for the 99th percentile
+     * @return The percentile of the property
+     */
+    public double percentileDouble(ToDoubleFunc1<TSource> selector, double percentile) {
+        validatePercentile(percentile);
+        validateNotEmpty();
+
+        var values = selectDoubles(selector);
+        double position = percentile / 100 * (values.length - 1);
+        int lower = (int) position;
+        double lowerValue = Selection.select(values, lower);
+        if (lower == position) {
+            return lowerValue;
+        }
+
+        // After the selection the next value is the smallest of the values above the lower one
+        double upperValue = values[lower + 1];
+        for (int i = lower + 2; i < values.length; i++) {
+            upperValue = Math.min(upperValue, values[i]);
+        }
+
+        return lowerValue + (upperValue - lowerValue) * (position - lower);
+    }
+
+    private double[] selectDoubles(ToDoubleFunc1<TSource> selector) {
+        var values = new double[source.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = selector.applyAsDouble(source.get(i));
+            if (Double.isNaN(values[i])) {
+                throw new IllegalArgumentException("The selected values can not be NaN.");
+            }
+        }
+
+        return values;
+    }
+
+    private void validateNotEmpty() {
+        if (source.isEmpty()) {
+            throw new NoSuchElementException("The collection is empty.");
+        }
+    }
+
+    private static void validatePercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+        }
+    }
+
+    /**
+     * Estimates the amount of distinct selected values with a HyperLogLog sketch, in a fixed amount of memory.
+     * @param selector The selector that selects the value
+     * @param precision The precision of the sketch between 4 and 18, the typical relative error is 1.04 / sqrt(2^precision)
+     * @return The estimated amount of distinct values
+     */
+    public long approxCountDistinct(Func1<TSource, ?> selector, int precision) {
+        return countDistinctSketch(selector, precision).estimate();
+    }
+
+    /**
+     * Creates a HyperLogLog sketch of the selected values, which can be merged with the sketches of other collections.
+     * @param selector The selector that selects the value
+     * @param precision The precision of the sketch between 4 and 18
+     * @return The sketch of the selected values
+     */
+    public HyperLogLog countDistinctSketch(Func1<TSource, ?> selector, int precision) {
+        var sketch = new HyperLogLog(precision);
+        for (var element : source) {
+            sketch.add(selector.execute(element));
+        }
+
+        return sketch;
+    }
+
+    /**
+     * Estimates the amount of distinct selected 64 bit values with a HyperLogLog sketch. Unlike approxCountDistinct,
+     * values are not hashed by their 32 bit hashCode, so it stays accurate for hundreds of millions of values if the
+     * selector returns a key or a 64 bit hash of the value.
+     * @param selector The selector that selects the value
+     * @param precision The precision of the sketch between 4 and 18, the typical relative error is 1.04 / sqrt(2^precision)
+     * @return The estimated amount of distinct values
+     */
+    public long approxCountDistinctLong(ToLongFunc1<TSource> selector, int precision) {
+        return countDistinctSketchLong(selector, precision).estimate();
+    }
+
+    /**
+     * Creates a HyperLogLog sketch of the selected 64 bit values, which can be merged with the sketches of other collections.
+     * @param selector The selector that selects the value
+     * @param precision The precision of the sketch between 4 and 18
+     * @return The sketch of the selected values
+     */
+    public HyperLogLog countDistinctSketchLong(ToLongFunc1<TSource> selector, int precision) {
+        var sketch = new HyperLogLog(precision);
+        for (var element : source) {
+            sketch.addLong(selector.applyAsLong(element));
+        }
+
+        return sketch;
+    }
+
+    /**
+     * Estimates a quantile of the selected property with a quantile sketch, without sorting the elements.
+     * @param selector The selector that selects the property
+     * @param quantile The fraction of the values that are below the result, between 0 and 1 (0.5 is the median)
+     * @param <TProperty> The type of the selected property
+     * @return The estimated quantile, or NaN if the collection is empty
+     */
+    public <TProperty extends Number> double approxQuantile(Func1<TSource, TProperty> selector, double quantile) {
+        return quantileSketch(selector).quantile(quantile);
+    }
+
+    /**
+     * Creates a quantile sketch of the selected property, which can be merged with the sketches of other collections.
+     * @param selector The selector that selects the property
+     * @param <TProperty> The type of the selected property
+     * @return The sketch of the selected property
+     */
+    public <TProperty extends Number> QuantileSketch quantileSketch(Func1<TSource, TProperty> selector) {
+        var sketch = new QuantileSketch();
+        for (var element : source) {
+            sketch.add(selector.execute(element).doubleValue());
+        }
+
+        return sketch;
+    }
+
     private void validateAmount(int amount) {
         if (amount < 0 || amount > count()) {
             throw new IllegalArgumentException("The amount must be a natural number that is not more than the size of the collection.");
@@ -467,7 +1080,7 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      */
     public QueryBuilder<TSource> skip(int amount) {
         validateAmount(amount);
-        return new QueryBuilder<>(takeElements(amount, source.size()));
+        return keepSortOrder(derive(takeElements(amount, source.size())));
     }
 
     /**
@@ -477,7 +1090,7 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      */
     public QueryBuilder<TSource> skipLast(int amount) {
         validateAmount(amount);
-        return new QueryBuilder<>(takeElements(0, source.size() - amount));
+        return keepSortOrder(derive(takeElements(0, source.size() - amount)));
     }
 
     /**
@@ -487,7 +1100,7 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      */
     public QueryBuilder<TSource> take(int amount) {
         validateAmount(amount);
-        return new QueryBuilder<>(takeElements(0, amount));
+        return keepSortOrder(derive(takeElements(0, amount)));
     }
 
     /**
@@ -497,16 +1110,42 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      */
     public QueryBuilder<TSource> takeLast(int amount) {
         validateAmount(amount);
-        return new QueryBuilder<>(takeElements(source.size() - amount, source.size()));
+        return keepSortOrder(derive(takeElements(source.size() - amount, source.size())));
+    }
+
+    private List<TSource> takeElements(int from, int to) {
+        return source.subList(from, to);
+    }
+
+    /**
+     * Returns a read-only view of the elements between the given indices, without copying them. The indices are
+     * clamped to the bounds of the collection, so the view is empty if from is past the end.
+     * @param from The index of the first element (inclusive)
+     * @param to The index after the last element (exclusive)
+     * @return A view of the elements between the indices
+     */
+    public List<TSource> slice(int from, int to) {
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("The indices must be natural numbers and from can not be more than to.");
+        }
+
+        int size = source.size();
+        return Collections.unmodifiableList(source.subList(Math.min(from, size), Math.min(to, size)));
     }
 
-    private ArrayList<TSource> takeElements(int from, int to) {
-        var elements = new ArrayList<TSource>();
-        for (int i = from; i < to; i++) {
-            elements.add(source.get(i));
+    /**
+     * Returns a read-only view of a page of the elements, without copying them. Pages past the end are empty.
+     * @param pageIndex The zero based index of the page
+     * @param pageSize The maximum amount of elements on a page
+     * @return A view of the elements of the page
+     */
+    public List<TSource> page(int pageIndex, int pageSize) {
+        if (pageIndex < 0 || pageSize < 0) {
+            throw new IllegalArgumentException("The page index and the page size must be natural numbers.");
         }
 
-        return elements;
+        long from = (long) pageIndex * pageSize;
+        return slice((int) Math.min(from, source.size()), (int) Math.min(from + pageSize, source.size()));
     }
 
     /**
@@ -527,7 +1166,7 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
             }
         }
 
-        return new QueryBuilder<>(results);
+        return derive(results);
     }
 
     /**
@@ -540,6 +1179,587 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
         return selectMany(collectionSelector, (element, collectionElement) -> collectionElement);
     }
 
+    /**
+     * Iterates through the collection and calls the accumulator for each element with the result of the previous
+     * accumulation, like aggregate, but keeps every intermediate result.
+     * @param seed The initial value of the accumulate
+     * @param accumulator The accumulator function
+     * @param <TAccumulate> The type of the accumulated value
+     * @return A QueryBuilder containing the accumulated value after each element
+     */
+    public <TAccumulate> QueryBuilder<TAccumulate> scan(TAccumulate seed, Func2<TAccumulate, TSource, TAccumulate> accumulator) {
+        var results = new ArrayList<TAccumulate>(source.size());
+        for (var element : source) {
+            seed = accumulator.execute(seed, element);
+            results.add(seed);
+        }
+
+        return derive(results);
+    }
+
+    /**
+     * Starts building an aggregation over windows of the given size that move one element at a time.
+     * Only full windows are aggregated.
+     * @param size The amount of elements in a window
+     * @return A WindowBuilder that can be used to aggregate the windows
+     */
+    public WindowBuilder<TSource> slidingWindow(int size) {
+        return new WindowBuilder<>(source, size, 1, false);
+    }
+
+    /**
+     * Starts building an aggregation over consecutive, non-overlapping windows of the given size.
+     * The last window contains the remaining elements, so it can be smaller.
+     * @param size The amount of elements in a window
+     * @return A WindowBuilder that can be used to aggregate the windows
+     */
+    public WindowBuilder<TSource> tumblingWindow(int size) {
+        return new WindowBuilder<>(source, size, size, true);
+    }
+
+    /**
+     * Produces the distinct elements of the underlying collection and the given collection, in the order they first appear.
+     * @param collection The collection to be united with the underlying collection
+     * @return A QueryBuilder containing the union of the collections
+     */
+    public QueryBuilder<TSource> union(Collection<TSource> collection) {
+        return markDistinct(unionBy(collection, e -> e));
+    }
+
+    /**
+     * Produces the distinct elements of the underlying collection and the given QueryBuilder, in the order they first appear.
+     * @param queryBuilder The QueryBuilder to be united with the underlying collection
+     * @return A QueryBuilder containing the union of the collections
+     */
+    public QueryBuilder<TSource> union(QueryBuilderBase<TSource> queryBuilder) {
+        return union(queryBuilder.toList());
+    }
+
+    /**
+     * Produces the elements of the underlying collection and the given collection that have distinct keys. Of the
+     * elements with the same key only the first one is kept.
+     * @param collection The collection to be united with the underlying collection
+     * @param keySelector The selector that selects the key of an element
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the union of the collections
+     */
+    public <TKey> QueryBuilder<TSource> unionBy(Collection<TSource> collection, Func1<TSource, TKey> keySelector) {
+        int size = source.size() + collection.size();
+        try (var reservation = planner.reserve(MemoryBudget.estimateHashBytes(size), "Union")) {
+            var keys = planner.<TKey>scratchSet(size);
+            var elements = planner.<TSource>resultList(reservation);
+
+            for (var element : source) {
+                if (keys.add(keySelector.execute(element))) {
+                    elements.add(element);
+                }
+            }
+
+            for (var element : collection) {
+                if (keys.add(keySelector.execute(element))) {
+                    elements.add(element);
+                }
+            }
+
+            planner.recycle(keys);
+            return deriveAndRecycle(elements);
+        }
+    }
+
+    /**
+     * Produces the elements of the underlying collection and the given QueryBuilder that have distinct keys. Of the
+     * elements with the same key only the first one is kept.
+     * @param queryBuilder The QueryBuilder to be united with the underlying collection
+     * @param keySelector The selector that selects the key of an element
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the union of the collections
+     */
+    public <TKey> QueryBuilder<TSource> unionBy(QueryBuilderBase<TSource> queryBuilder, Func1<TSource, TKey> keySelector) {
+        return unionBy(queryBuilder.toList(), keySelector);
+    }
+
+    /**
+     * Produces the distinct elements of the underlying collection that are also in the given collection.
+     * @param collection The collection to be intersected with the underlying collection
+     * @return A QueryBuilder containing the intersection of the collections
+     */
+    public QueryBuilder<TSource> intersect(Collection<TSource> collection) {
+        return markDistinct(intersectBy(collection, e -> e));
+    }
+
+    /**
+     * Produces the distinct elements of the underlying collection that are also in the given QueryBuilder.
+     * @param queryBuilder The QueryBuilder to be intersected with the underlying collection
+     * @return A QueryBuilder containing the intersection of the collections
+     */
+    public QueryBuilder<TSource> intersect(QueryBuilderBase<TSource> queryBuilder) {
+        return intersect(queryBuilder.toList());
+    }
+
+    /**
+     * Produces the elements of the underlying collection whose key is also the key of an element in the given
+     * collection. Of the elements with the same key only the first one is kept.
+     * @param collection The collection to be intersected with the underlying collection
+     * @param keySelector The selector that selects the key of an element
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the intersection of the collections
+     */
+    public <TKey> QueryBuilder<TSource> intersectBy(Collection<TSource> collection, Func1<TSource, TKey> keySelector) {
+        try (var reservation = planner.reserve(MemoryBudget.estimateHashBytes(collection.size()), "Intersection")) {
+            var keys = planner.<TKey>scratchSet(collection.size());
+            for (var element : collection) {
+                keys.add(keySelector.execute(element));
+            }
+
+            var elements = planner.<TSource>resultList(reservation);
+            for (var element : source) {
+                if (keys.remove(keySelector.execute(element))) {
+                    elements.add(element);
+                }
+            }
+
+            planner.recycle(keys);
+            return keepSortOrder(deriveAndRecycle(elements));
+        }
+    }
+
+    /**
+     * Produces the elements of the underlying collection whose key is also the key of an element in the given
+     * QueryBuilder. Of the elements with the same key only the first one is kept.
+     * @param queryBuilder The QueryBuilder to be intersected with the underlying collection
+     * @param keySelector The selector that selects the key of an element
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the intersection of the collections
+     */
+    public <TKey> QueryBuilder<TSource> intersectBy(QueryBuilderBase<TSource> queryBuilder, Func1<TSource, TKey> keySelector) {
+        return intersectBy(queryBuilder.toList(), keySelector);
+    }
+
+    /**
+     * Produces the distinct elements of the underlying collection that are not in the given collection.
+     * @param collection The collection whose elements are removed
+     * @return A QueryBuilder containing the difference of the collections
+     */
+    public QueryBuilder<TSource> except(Collection<TSource> collection) {
+        return markDistinct(exceptBy(collection, e -> e));
+    }
+
+    /**
+     * Produces the distinct elements of the underlying collection that are not in the given QueryBuilder.
+     * @param queryBuilder The QueryBuilder whose elements are removed
+     * @return A QueryBuilder containing the difference of the collections
+     */
+    public QueryBuilder<TSource> except(QueryBuilderBase<TSource> queryBuilder) {
+        return except(queryBuilder.toList());
+    }
+
+    /**
+     * Produces the elements of the underlying collection whose key is not the key of any element in the given
+     * collection. Of the elements with the same key only the first one is kept.
+     * @param collection The collection whose keys are removed
+     * @param keySelector The selector that selects the key of an element
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the difference of the collections
+     */
+    public <TKey> QueryBuilder<TSource> exceptBy(Collection<TSource> collection, Func1<TSource, TKey> keySelector) {
+        int size = source.size() + collection.size();
+        try (var reservation = planner.reserve(MemoryBudget.estimateHashBytes(size), "Difference")) {
+            var keys = planner.<TKey>scratchSet(size);
+            for (var element : collection) {
+                keys.add(keySelector.execute(element));
+            }
+
+            var elements = planner.<TSource>resultList(reservation);
+            for (var element : source) {
+                if (keys.add(keySelector.execute(element))) {
+                    elements.add(element);
+                }
+            }
+
+            planner.recycle(keys);
+            return keepSortOrder(deriveAndRecycle(elements));
+        }
+    }
+
+    /**
+     * Produces the elements of the underlying collection whose key is not the key of any element in the given
+     * QueryBuilder. Of the elements with the same key only the first one is kept.
+     * @param queryBuilder The QueryBuilder whose keys are removed
+     * @param keySelector The selector that selects the key of an element
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the difference of the collections
+     */
+    public <TKey> QueryBuilder<TSource> exceptBy(QueryBuilderBase<TSource> queryBuilder, Func1<TSource, TKey> keySelector) {
+        return exceptBy(queryBuilder.toList(), keySelector);
+    }
+
+    /**
+     * Unites two collections that are both ordered ascending by the selected key, by merging them instead of hashing.
+     * The result is ordered by the key, and of the elements with the same key only the first one is kept. If the
+     * collections are not ordered by the key, an IllegalArgumentException is thrown.
+     * @param collection The collection ordered by the key
+     * @param keySelector The selector that selects the key the collections are ordered by
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the union of the collections
+     */
+    public <TKey extends Comparable<TKey>> QueryBuilder<TSource> mergeUnionBy(Collection<TSource> collection, Func1<TSource, TKey> keySelector) {
+        return sortedByKey(SortedMerge.union(source, new ArrayList<>(collection), keySelector), keySelector);
+    }
+
+    /**
+     * Unites two collections that are both ordered ascending by the selected key, by merging them instead of hashing.
+     * @param queryBuilder The QueryBuilder ordered by the key
+     * @param keySelector The selector that selects the key the collections are ordered by
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the union of the collections
+     */
+    public <TKey extends Comparable<TKey>> QueryBuilder<TSource> mergeUnionBy(QueryBuilderBase<TSource> queryBuilder, Func1<TSource, TKey> keySelector) {
+        return mergeUnionBy(queryBuilder.toList(), keySelector);
+    }
+
+    /**
+     * Intersects two collections that are both ordered ascending by the selected key, by merging them instead of hashing.
+     * The result is ordered by the key, and of the elements with the same key only the first one is kept. If the
+     * collections are not ordered by the key, an IllegalArgumentException is thrown.
+     * @param collection The collection ordered by the key
+     * @param keySelector The selector that selects the key the collections are ordered by
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the intersection of the collections
+     */
+    public <TKey extends Comparable<TKey>> QueryBuilder<TSource> mergeIntersectBy(Collection<TSource> collection, Func1<TSource, TKey> keySelector) {
+        return sortedByKey(SortedMerge.intersect(source, new ArrayList<>(collection), keySelector), keySelector);
+    }
+
+    /**
+     * Intersects two collections that are both ordered ascending by the selected key, by merging them instead of hashing.
+     * @param queryBuilder The QueryBuilder ordered by the key
+     * @param keySelector The selector that selects the key the collections are ordered by
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the intersection of the collections
+     */
+    public <TKey extends Comparable<TKey>> QueryBuilder<TSource> mergeIntersectBy(QueryBuilderBase<TSource> queryBuilder, Func1<TSource, TKey> keySelector) {
+        return mergeIntersectBy(queryBuilder.toList(), keySelector);
+    }
+
+    /**
+     * Removes the keys of a collection from the underlying collection, if both are ordered ascending by the selected key,
+     * by merging them instead of hashing. The result is ordered by the key, and of the elements with the same key only
+     * the first one is kept. If the collections are not ordered by the key, an IllegalArgumentException is thrown.
+     * @param collection The collection ordered by the key
+     * @param keySelector The selector that selects the key the collections are ordered by
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the difference of the collections
+     */
+    public <TKey extends Comparable<TKey>> QueryBuilder<TSource> mergeExceptBy(Collection<TSource> collection, Func1<TSource, TKey> keySelector) {
+        return sortedByKey(SortedMerge.except(source, new ArrayList<>(collection), keySelector), keySelector);
+    }
+
+    /**
+     * Removes the keys of a QueryBuilder from the underlying collection, if both are ordered ascending by the selected key,
+     * by merging them instead of hashing.
+     * @param queryBuilder The QueryBuilder ordered by the key
+     * @param keySelector The selector that selects the key the collections are ordered by
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the difference of the collections
+     */
+    public <TKey extends Comparable<TKey>> QueryBuilder<TSource> mergeExceptBy(QueryBuilderBase<TSource> queryBuilder, Func1<TSource, TKey> keySelector) {
+        return mergeExceptBy(queryBuilder.toList(), keySelector);
+    }
+
+    private <TKey extends Comparable<TKey>> QueryBuilder<TSource> sortedByKey(List<TSource> elements, Func1<TSource, TKey> keySelector) {
+        var queryBuilder = derive(elements);
+        queryBuilder.sortOrder = List.of(new OrderByComparable<>(keySelector, Direction.ASCENDING));
+        return queryBuilder;
+    }
+
+    /**
+     * Returns an initial capacity for hash based collections that can hold the given amount of elements without rehashing.
+     */
+    static int hashCapacity(int expectedSize) {
+        return (int) (expectedSize / 0.75f) + 1;
+    }
+
+    /**
+     * Filters the elements that have a matching element in the other collection, i.e. whose key is also the key of an
+     * element in the other collection. The keys of the other collection are put into a hash set, so the other collection
+     * is only read once.
+     * @param collection The other collection
+     * @param keySelector The selector that selects the key of an element
+     * @param otherKeySelector The selector that selects the key of an element of the other collection
+     * @param <TOther> The type of the elements in the other collection
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the elements that have a match
+     */
+    public <TOther, TKey> QueryBuilder<TSource> whereExists(Collection<TOther> collection, Func1<TSource, TKey> keySelector, Func1<TOther, TKey> otherKeySelector) {
+        return semiJoin(collection, keySelector, otherKeySelector, null, true);
+    }
+
+    /**
+     * Filters the elements that have a matching element in the other collection. Before looking up a key in the hash set,
+     * it is checked against a Bloom filter with the given false positive rate, which rejects most elements without a
+     * match cheaply. Useful if the underlying collection is much larger than the other one and most elements have no match.
+     * @param collection The other collection
+     * @param keySelector The selector that selects the key of an element
+     * @param otherKeySelector The selector that selects the key of an element of the other collection
+     * @param falsePositiveRate The false positive rate of the Bloom filter
+     * @param <TOther> The type of the elements in the other collection
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the elements that have a match
+     */
+    public <TOther, TKey> QueryBuilder<TSource> whereExists(Collection<TOther> collection, Func1<TSource, TKey> keySelector, Func1<TOther, TKey> otherKeySelector, double falsePositiveRate) {
+        return semiJoin(collection, keySelector, otherKeySelector, new BloomFilter<>(collection.size(), falsePositiveRate), true);
+    }
+
+    /**
+     * Filters the elements that do not have a matching element in the other collection, i.e. whose key is not the key of
+     * any element in the other collection.
+     * @param collection The other collection
+     * @param keySelector The selector that selects the key of an element
+     * @param otherKeySelector The selector that selects the key of an element of the other collection
+     * @param <TOther> The type of the elements in the other collection
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the elements that have no match
+     */
+    public <TOther, TKey> QueryBuilder<TSource> whereNotExists(Collection<TOther> collection, Func1<TSource, TKey> keySelector, Func1<TOther, TKey> otherKeySelector) {
+        return semiJoin(collection, keySelector, otherKeySelector, null, false);
+    }
+
+    /**
+     * Filters the elements that do not have a matching element in the other collection. Elements rejected by a Bloom
+     * filter with the given false positive rate are kept without looking up their key in the hash set.
+     * @param collection The other collection
+     * @param keySelector The selector that selects the key of an element
+     * @param otherKeySelector The selector that selects the key of an element of the other collection
+     * @param falsePositiveRate The false positive rate of the Bloom filter
+     * @param <TOther> The type of the elements in the other collection
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the elements that have no match
+     */
+    public <TOther, TKey> QueryBuilder<TSource> whereNotExists(Collection<TOther> collection, Func1<TSource, TKey> keySelector, Func1<TOther, TKey> otherKeySelector, double falsePositiveRate) {
+        return semiJoin(collection, keySelector, otherKeySelector, new BloomFilter<>(collection.size(), falsePositiveRate), false);
+    }
+
+    private <TOther, TKey> QueryBuilder<TSource> semiJoin(Collection<TOther> collection, Func1<TSource, TKey> keySelector, Func1<TOther, TKey> otherKeySelector,
+                                                          BloomFilter<TKey> bloomFilter, boolean keepMatching) {
+        try (var reservation = planner.reserve(MemoryBudget.estimateHashBytes(collection.size()), "Semi-join")) {
+            var keys = planner.<TKey>scratchSet(collection.size());
+            for (var otherElement : collection) {
+                var key = otherKeySelector.execute(otherElement);
+                keys.add(key);
+                if (bloomFilter != null) {
+                    bloomFilter.add(key);
+                }
+            }
+
+            var elements = planner.<TSource>resultList(reservation);
+            for (var element : source) {
+                var key = keySelector.execute(element);
+                boolean matches = (bloomFilter == null || bloomFilter.mightContain(key)) && keys.contains(key);
+                if (matches == keepMatching) {
+                    elements.add(element);
+                }
+            }
+
+            planner.recycle(keys);
+            return keepSortOrder(deriveAndRecycle(elements));
+        }
+    }
+
+    /**
+     * Groups the elements by the selected key. The groups are in the order their keys first appear in the collection.
+     * @param keySelector The selector that selects the key of an element
+     * @param <TKey> The type of the key
+     * @return A QueryBuilder containing the groups
+     */
+    public <TKey> QueryBuilder<Grouping<TKey, TSource>> groupBy(Func1<TSource, TKey> keySelector) {
+        return groupBy(keySelector, group -> group);
+    }
+
+    /**
+     * Groups the elements by the selected key and converts each group into a result.
+     * @param keySelector The selector that selects the key of an element
+     * @param resultSelector The converter that converts a group into a result
+     * @param <TKey> The type of the key
+     * @param <TResult> The type of the result
+     * @return A QueryBuilder containing the results of the groups
+     */
+    public <TKey, TResult> QueryBuilder<TResult> groupBy(Func1<TSource, TKey> keySelector, Func1<Grouping<TKey, TSource>, TResult> resultSelector) {
+        var strategy = planner.planAggregation(source.size(), isSortedBy(keySelector), 0);
+        long bytes = strategy == Strategy.SORTED_AGGREGATION ? 0 : ExecutionPlanner.aggregationBytes(source.size());
+        try (var reservation = planner.reserve(bytes, "Grouping")) {
+            var results = planner.<TResult>resultList(reservation);
+            if (strategy == Strategy.SORTED_AGGREGATION) {
+                GraceHashing.sortedGroup(source, keySelector, resultSelector, results);
+            } else {
+                GraceHashing.hashGroup(source, keySelector, resultSelector, results);
+            }
+
+            return derive(results);
+        }
+    }
+
+    /**
+     * Groups the elements by the selected key and converts each group into a result, holding at most memoryBudget
+     * elements in the hash table at a time. If there are more elements, they are partitioned by the hash of their key
+     * into temporary files using the serializer, and each partition is grouped and converted separately. The results
+     * are then ordered by partition instead of by the first appearance of their keys.
+     * @param keySelector The selector that selects the key of an element
+     * @param resultSelector The converter that converts a group into a result
+     * @param memoryBudget The maximum amount of elements in the hash table
+     * @param serializer The serializer of the elements
+     * @param <TKey> The type of the key
+     * @param <TResult> The type of the result
+     * @return A QueryBuilder containing the results of the groups
+     */
+    public <TKey, TResult> QueryBuilder<TResult> groupBy(Func1<TSource, TKey> keySelector, Func1<Grouping<TKey, TSource>, TResult> resultSelector,
+                                                         int memoryBudget, ElementSerializer<TSource> serializer) {
+        GraceHashing.validateMemoryBudget(memoryBudget);
+
+        var strategy = planner.planAggregation(source.size(), isSortedBy(keySelector), memoryBudget);
+        try (var reservation = planner.reserve(0, "Grouping")) {
+            var results = planner.<TResult>resultList(reservation);
+            if (strategy == Strategy.SORTED_AGGREGATION) {
+                GraceHashing.sortedGroup(source, keySelector, resultSelector, results);
+            } else {
+                long entryBytes = MemoryBudget.HASH_ENTRY_BYTES + MemoryBudget.REFERENCE_BYTES;
+                int partitionBudget = planner.elementsFitting(entryBytes, memoryBudget);
+                reservation.grow(Math.min(partitionBudget, source.size()) * entryBytes);
+                GraceHashing.group(source, source.size(), keySelector, resultSelector, partitionBudget, serializer, 0, results);
+            }
+
+            return derive(results);
+        }
+    }
+
+    /**
+     * Joins the other collection to the elements by equal keys, keeping the elements that have no matching element in
+     * the other collection. The other collection is put into a hash table by its keys, so each collection is read once.
+     * @param collection The other collection
+     * @param keySelector The selector that selects the key of an element
+     * @param otherKeySelector The selector that selects the key of an element of the other collection
+     * @param converter The converter that converts the joined pairs into results. The element of the other collection
+     *                  is null for the elements that have no match.
+     * @param <TOther> The type of the elements in the other collection
+     * @param <TKey> The type of the key
+     * @param <TResult> The type of the result
+     * @return A QueryBuilder containing the results in the order of the elements
+     */
+    public <TOther, TKey, TResult> QueryBuilder<TResult> leftJoin(Collection<TOther> collection, Func1<TSource, TKey> keySelector,
+                                                                 Func1<TOther, TKey> otherKeySelector, Func2<TSource, TOther, TResult> converter) {
+        try (var reservation = planner.reserve(ExecutionPlanner.aggregationBytes(collection.size()), "Left join")) {
+            var table = lookup(collection, otherKeySelector);
+            var results = planner.<TResult>resultList(reservation);
+            results.ensureCapacity(source.size());
+            for (var element : source) {
+                var matches = table.get(keySelector.execute(element));
+                if (matches == null) {
+                    results.add(converter.execute(element, null));
+                    continue;
+                }
+
+                for (var otherElement : matches.elements) {
+                    results.add(converter.execute(element, otherElement));
+                }
+            }
+
+            return deriveAndRecycle(results);
+        }
+    }
+
+    /**
+     * Joins the other collection to the elements by equal keys, keeping the elements of both collections that have no
+     * match. The results of the elements come first in their order, followed by the unmatched elements of the other
+     * collection in the order their keys first appear.
+     * @param collection The other collection
+     * @param keySelector The selector that selects the key of an element
+     * @param otherKeySelector The selector that selects the key of an element of the other collection
+     * @param converter The converter that converts the joined pairs into results. The element that has no match on the
+     *                  other side is paired with null.
+     * @param <TOther> The type of the elements in the other collection
+     * @param <TKey> The type of the key
+     * @param <TResult> The type of the result
+     * @return A QueryBuilder containing the results
+     */
+    public <TOther, TKey, TResult> QueryBuilder<TResult> fullJoin(Collection<TOther> collection, Func1<TSource, TKey> keySelector,
+                                                                 Func1<TOther, TKey> otherKeySelector, Func2<TSource, TOther, TResult> converter) {
+        try (var reservation = planner.reserve(ExecutionPlanner.aggregationBytes(collection.size()), "Full join")) {
+            var table = lookup(collection, otherKeySelector);
+            var results = planner.<TResult>resultList(reservation);
+            results.ensureCapacity(source.size());
+            for (var element : source) {
+                var matches = table.get(keySelector.execute(element));
+                if (matches == null) {
+                    results.add(converter.execute(element, null));
+                    continue;
+                }
+
+                matches.matched = true;
+                for (var otherElement : matches.elements) {
+                    results.add(converter.execute(element, otherElement));
+                }
+            }
+
+            for (var group : table.values()) {
+                if (!group.matched) {
+                    for (var otherElement : group.elements) {
+                        results.add(converter.execute(null, otherElement));
+                    }
+                }
+            }
+
+            return deriveAndRecycle(results);
+        }
+    }
+
+    /**
+     * Pairs each element with the elements of the other collection that have the same key. The matching elements are
+     * passed to the converter as one list, so the pairs of the elements are never created one by one.
+     * @param collection The other collection
+     * @param keySelector The selector that selects the key of an element
+     * @param otherKeySelector The selector that selects the key of an element of the other collection
+     * @param converter The converter that converts an element and the unmodifiable list of its matches into a result.
+     *                  The list is empty if the element has no match.
+     * @param <TOther> The type of the elements in the other collection
+     * @param <TKey> The type of the key
+     * @param <TResult> The type of the result
+     * @return A QueryBuilder containing the results in the order of the elements
+     */
+    public <TOther, TKey, TResult> QueryBuilder<TResult> groupJoin(Collection<TOther> collection, Func1<TSource, TKey> keySelector,
+                                                                  Func1<TOther, TKey> otherKeySelector, Func2<TSource, List<TOther>, TResult> converter) {
+        try (var reservation = planner.reserve(ExecutionPlanner.aggregationBytes(collection.size()), "Group join")) {
+            var table = lookup(collection, otherKeySelector);
+            var results = planner.<TResult>resultList(reservation);
+            results.ensureCapacity(source.size());
+            for (var element : source) {
+                var matches = table.get(keySelector.execute(element));
+                results.add(converter.execute(element, matches != null ? matches.view : Collections.emptyList()));
+            }
+
+            return deriveAndRecycle(results);
+        }
+    }
+
+    /**
+     * Puts the elements of the collection into a hash table by their keys, keeping the order the keys first appear.
+     */
+    private static <TOther, TKey> LinkedHashMap<TKey, JoinGroup<TOther>> lookup(Collection<TOther> collection, Func1<TOther, TKey> keySelector) {
+        var table = new LinkedHashMap<TKey, JoinGroup<TOther>>(hashCapacity(collection.size()));
+        for (var element : collection) {
+            table.computeIfAbsent(keySelector.execute(element), k -> new JoinGroup<>()).elements.add(element);
+        }
+
+        return table;
+    }
+
+    /**
+     * The elements of the other collection of an outer join that have the same key.
+     */
+    private static class JoinGroup<TOther> {
+        private ArrayList<TOther> elements = new ArrayList<>(1);
+        private List<TOther> view = Collections.unmodifiableList(elements);
+        private boolean matched;
+    }
+
     /**
      * Starts building a join with an other collection.
      * @param collection The collection to be joined
@@ -547,7 +1767,7 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return A JoinBuilder that can be used to configure the join
      */
     public <TCollection> JoinBuilder<TSource, TCollection> join(Collection<TCollection> collection) {
-        return new JoinBuilder<>(toList(), collection);
+        return new JoinBuilder<>(toList(), collection, planner);
     }
 
     /**
@@ -557,7 +1777,70 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return A JoinBuilder that can be used to configure the join
      */
     public <TCollection> JoinBuilder<TSource, TCollection> join(QueryBuilderBase<TCollection> queryBuilder) {
-        return new JoinBuilder<>(toList(), queryBuilder.toList());
+        return new JoinBuilder<>(toList(), queryBuilder.toList(), planner);
+    }
+
+    /**
+     * Writes the elements to the channel as rows of UTF-8 text, one row per line, without collecting the rows in memory.
+     * The channel is not closed.
+     * @param channel The destination channel
+     * @param encoder The encoder that converts the elements into rows, e.g. a CsvEncoder or a JsonLinesEncoder
+     * @return The amount of rows written, not counting the header
+     */
+    public long writeTo(WritableByteChannel channel, RowEncoder<TSource> encoder) {
+        return RowWriter.write(iterator(), encoder, channel);
+    }
+
+    /**
+     * Writes the elements to the stream as rows of UTF-8 text, one row per line, without collecting the rows in memory.
+     * The stream is flushed but not closed.
+     * @param stream The destination stream
+     * @param encoder The encoder that converts the elements into rows, e.g. a CsvEncoder or a JsonLinesEncoder
+     * @return The amount of rows written, not counting the header
+     */
+    public long writeTo(OutputStream stream, RowEncoder<TSource> encoder) {
+        return RowWriter.write(iterator(), encoder, stream);
+    }
+
+    /**
+     * Writes the elements to the writer as rows of text, one row per line, without collecting the rows in memory.
+     * The writer is flushed but not closed.
+     * @param writer The destination writer
+     * @param encoder The encoder that converts the elements into rows, e.g. a CsvEncoder or a JsonLinesEncoder
+     * @return The amount of rows written, not counting the header
+     */
+    public long writeTo(Writer writer, RowEncoder<TSource> encoder) {
+        return RowWriter.write(iterator(), encoder, writer);
+    }
+
+    /**
+     * Saves the elements, in their order, to a snapshot file that can be opened with QuerySnapshot.open after a
+     * restart, without executing the query again.
+     * @param path The path of the snapshot file
+     * @param serializer The serializer that encodes the elements
+     */
+    public void saveSnapshot(Path path, ElementSerializer<TSource> serializer) {
+        QuerySnapshot.write(path, toList(), serializer);
+    }
+
+    /**
+     * Groups the elements by the selected key and saves the groups to a snapshot file that can be opened with
+     * QuerySnapshot.openGroups after a restart. The groups are in the order their keys first appear, and the elements
+     * of a group keep their order.
+     * @param path The path of the snapshot file
+     * @param keySelector The selector that selects the key of an element
+     * @param keySerializer The serializer that encodes the keys
+     * @param serializer The serializer that encodes the elements
+     * @param <TKey> The type of the key
+     */
+    public <TKey> void saveGroupSnapshot(Path path, Func1<TSource, TKey> keySelector, ElementSerializer<TKey> keySerializer,
+                                         ElementSerializer<TSource> serializer) {
+        var groups = new LinkedHashMap<TKey, List<TSource>>();
+        for (var element : toList()) {
+            groups.computeIfAbsent(keySelector.execute(element), k -> new ArrayList<>()).add(element);
+        }
+
+        QuerySnapshot.writeGroups(path, groups, keySerializer, serializer);
     }
 
     /**
@@ -566,6 +1849,15 @@ public abstract class QueryBuilderBase<TSource> extends Enumerable<TSource> {
      * @return A WhenBuilder with the given condition
      */
     public WhenBuilder<TSource> when(Func1<TSource, Boolean> condition) {
+        return when(Predicate1.of(condition));
+    }
+
+    /**
+     * Starts building a when that can be used to call methods on elements that satisfy the given condition.
+     * @param condition The condition, which returns a primitive boolean
+     * @return A WhenBuilder with the given condition
+     */
+    public WhenBuilder<TSource> when(Predicate1<TSource> condition) {
         return new WhenBuilder<>(source, condition);
     }
 
@@ -0,0 +1,80 @@
+package linq.query;
+
+import linq.lambda.Func1;
+import linq.orders.Direction;
+import linq.orders.OrderBase;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over the elements of a query that also reports what is known about them: whether they are distinct,
+ * and the orderings they are sorted by.
+ */
+class QuerySpliterator<TSource> implements Spliterator<TSource> {
+    private Spliterator<TSource> spliterator;
+    private boolean distinct;
+    private List<OrderBase<TSource, ?>> sortOrder;
+
+    QuerySpliterator(Spliterator<TSource> spliterator, boolean distinct, List<OrderBase<TSource, ?>> sortOrder) {
+        this.spliterator = spliterator;
+        this.distinct = distinct;
+        this.sortOrder = sortOrder;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super TSource> action) {
+        return spliterator.tryAdvance(action);
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super TSource> action) {
+        spliterator.forEachRemaining(action);
+    }
+
+    @Override
+    public Spliterator<TSource> trySplit() {
+        var prefix = spliterator.trySplit();
+        return prefix != null ? new QuerySpliterator<>(prefix, distinct, sortOrder) : null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return spliterator.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return spliterator.characteristics()
+                | (distinct ? DISTINCT : 0)
+                | (sortOrder.isEmpty() ? 0 : SORTED | ORDERED);
+    }
+
+    /**
+     * Returns the comparator of the sort order, or null if the elements are sorted by their natural ordering.
+     */
+    @Override
+    public Comparator<? super TSource> getComparator() {
+        if (sortOrder.isEmpty()) {
+            throw new IllegalStateException("The elements are not known to be sorted.");
+        }
+
+        var order = sortOrder.get(0);
+        if (sortOrder.size() == 1 && order.getDirection() == Direction.ASCENDING && order.ordersBy(Func1.identity(), null)) {
+            return null;
+        }
+
+        return (element, otherElement) -> {
+            for (var sortingOrder : sortOrder) {
+                int compareResult = sortingOrder.compareElements(element, otherElement);
+                if (compareResult != 0) {
+                    return compareResult;
+                }
+            }
+
+            return 0;
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package linq.query;
+
+import linq.lambda.Func1;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set operations on two lists that are ordered ascending by the same key. Each list is read once, and of the
+ * elements with the same key only the first one is kept. If a key is smaller than the one before it, the lists
+ * are not ordered, and an IllegalArgumentException is thrown instead of returning a wrong result.
+ */
+class SortedMerge {
+    private SortedMerge() {
+    }
+
+    static <TSource, TKey extends Comparable<TKey>> ArrayList<TSource> union(List<TSource> one, List<TSource> other, Func1<TSource, TKey> keySelector) {
+        var elements = new ArrayList<TSource>();
+        var oneCursor = new Cursor<>(one, keySelector);
+        var otherCursor = new Cursor<>(other, keySelector);
+
+        while (oneCursor.hasCurrent() || otherCursor.hasCurrent()) {
+            Cursor<TSource, TKey> smaller;
+            if (!otherCursor.hasCurrent()) {
+                smaller = oneCursor;
+            } else if (!oneCursor.hasCurrent()) {
+                smaller = otherCursor;
+            } else {
+                smaller = oneCursor.key.compareTo(otherCursor.key) <= 0 ? oneCursor : otherCursor;
+            }
+
+            var key = smaller.key;
+            elements.add(smaller.element);
+            oneCursor.skipKey(key);
+            otherCursor.skipKey(key);
+        }
+
+        return elements;
+    }
+
+    static <TSource, TKey extends Comparable<TKey>> ArrayList<TSource> intersect(List<TSource> one, List<TSource> other, Func1<TSource, TKey> keySelector) {
+        var elements = new ArrayList<TSource>();
+        var oneCursor = new Cursor<>(one, keySelector);
+        var otherCursor = new Cursor<>(other, keySelector);
+
+        while (oneCursor.hasCurrent() && otherCursor.hasCurrent()) {
+            int compareResult = oneCursor.key.compareTo(otherCursor.key);
+            if (compareResult < 0) {
+                oneCursor.skipKey(oneCursor.key);
+            } else if (compareResult > 0) {
+                otherCursor.skipKey(otherCursor.key);
+            } else {
+                var key = oneCursor.key;
+                elements.add(oneCursor.element);
+                oneCursor.skipKey(key);
+                otherCursor.skipKey(key);
+            }
+        }
+
+        oneCursor.skipRest();
+        otherCursor.skipRest();
+        return elements;
+    }
+
+    static <TSource, TKey extends Comparable<TKey>> ArrayList<TSource> except(List<TSource> one, List<TSource> other, Func1<TSource, TKey> keySelector) {
+        var elements = new ArrayList<TSource>();
+        var oneCursor = new Cursor<>(one, keySelector);
+        var otherCursor = new Cursor<>(other, keySelector);
+
+        while (oneCursor.hasCurrent()) {
+            var key = oneCursor.key;
+            while (otherCursor.hasCurrent() && otherCursor.key.compareTo(key) < 0) {
+                otherCursor.skipKey(otherCursor.key);
+            }
+
+            if (!otherCursor.hasCurrent() || otherCursor.key.compareTo(key) != 0) {
+                elements.add(oneCursor.element);
+            }
+
+            oneCursor.skipKey(key);
+        }
+
+        otherCursor.skipRest();
+        return elements;
+    }
+
+    /**
+     * A position in an ordered list, with the key of the current element computed once.
+     */
+    private static class Cursor<TSource, TKey extends Comparable<TKey>> {
+        private List<TSource> elements;
+        private Func1<TSource, TKey> keySelector;
+        private int index;
+        private TSource element;
+        private TKey key;
+
+        Cursor(List<TSource> elements, Func1<TSource, TKey> keySelector) {
+            this.elements = elements;
+            this.keySelector = keySelector;
+            this.index = -1;
+            advance();
+        }
+
+        boolean hasCurrent() {
+            return index < elements.size();
+        }
+
+        /**
+         * Moves past every element whose key is equal to the given key.
+         */
+        void skipKey(TKey skippedKey) {
+            while (hasCurrent() && key.compareTo(skippedKey) == 0) {
+                advance();
+            }
+        }
+
+        /**
+         * Moves to the end, checking the order of the remaining keys.
+         */
+        void skipRest() {
+            while (hasCurrent()) {
+                advance();
+            }
+        }
+
+        private void advance() {
+            index++;
+            if (hasCurrent()) {
+                var previousKey = key;
+                element = elements.get(index);
+                key = keySelector.execute(element);
+                if (previousKey != null && key.compareTo(previousKey) < 0) {
+                    throw new IllegalArgumentException("The collections must be ordered ascending by the key.");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package linq.query;
+
+/**
+ * The algorithms an ExecutionPlanner can choose for executing a query operation.
+ */
+public enum Strategy {
+    /**
+     * Filters the elements into a list that grows as needed.
+     */
+    FILTER,
+    /**
+     * Filters the elements into a list presized by the selectivity of the condition on the first elements.
+     */
+    SAMPLED_FILTER,
+    /**
+     * Compares every pair of elements of the joined collections.
+     */
+    NESTED_LOOP_JOIN,
+    /**
+     * Looks up the matches of each element in a hash table built from the other collection.
+     */
+    HASH_JOIN,
+    /**
+     * Partitions both joined collections into temporary files, then hash joins the partitions one at a time.
+     */
+    GRACE_HASH_JOIN,
+    /**
+     * Sorts the elements on the calling thread, with a radix sort if the selected properties allow it.
+     */
+    SORT,
+    /**
+     * Sorts the elements with a merge sort on a ForkJoinPool.
+     */
+    PARALLEL_SORT,
+    /**
+     * Sorts runs of the elements in memory and merges them from temporary files.
+     */
+    EXTERNAL_SORT,
+    /**
+     * Keeps the first elements of the ordering in a bounded heap instead of sorting every element.
+     */
+    TOP_K,
+    /**
+     * The elements are already known to be distinct, so they are only copied.
+     */
+    ALREADY_DISTINCT,
+    /**
+     * Compares each value to the values kept so far, which is the fastest for a few elements.
+     */
+    LINEAR_DISTINCT,
+    /**
+     * Keeps the values that are not yet in a hash set.
+     */
+    HASH_DISTINCT,
+    /**
+     * Equal values are next to each other in the ordered elements, so each value is compared to the previous one.
+     */
+    SORTED_DISTINCT,
+    /**
+     * Collects the groups in a hash table.
+     */
+    HASH_AGGREGATION,
+    /**
+     * Partitions the elements into temporary files, then groups the partitions one at a time in a hash table.
+     */
+    GRACE_HASH_AGGREGATION,
+    /**
+     * Equal keys are next to each other in the ordered elements, so each group is closed when the key changes.
+     */
+    SORTED_AGGREGATION
+}
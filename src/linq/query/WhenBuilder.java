@@ -2,6 +2,7 @@ package linq.query;
 
 import linq.lambda.Action;
 import linq.lambda.Func1;
+import linq.lambda.Predicate1;
 import linq.Enumerable;
 
 import java.util.ArrayList;
@@ -11,9 +12,9 @@ import java.util.Collection;
  * @param <TSource> The type of the elements that are in the underlying collection
  */
 public class WhenBuilder<TSource> extends Enumerable<TSource> {
-    private Func1<TSource, Boolean> condition;
+    private Predicate1<TSource> condition;
 
-    WhenBuilder(Collection<TSource> source, Func1<TSource, Boolean> condition) {
+    WhenBuilder(Collection<TSource> source, Predicate1<TSource> condition) {
         super(source);
         this.condition = condition;
     }
@@ -25,7 +26,7 @@ public class WhenBuilder<TSource> extends Enumerable<TSource> {
      */
     public QueryBuilder<TSource> then(Action<TSource> action) {
         for (var element : source) {
-            if (condition.execute(element)) {
+            if (condition.test(element)) {
                 action.execute(element);
             }
         }
@@ -40,7 +41,7 @@ public class WhenBuilder<TSource> extends Enumerable<TSource> {
     public QueryBuilder<TSource> thenFilter() {
         var elements = new ArrayList<TSource>();
         for (var element : source) {
-            if (condition.execute(element)) {
+            if (condition.test(element)) {
                 elements.add(element);
             }
         }
@@ -56,7 +57,7 @@ public class WhenBuilder<TSource> extends Enumerable<TSource> {
         var count = 0;
 
         for (var element : source) {
-            if (condition.execute(element)) {
+            if (condition.test(element)) {
                 count++;
             }
         }
@@ -0,0 +1,235 @@
+package linq.query;
+
+import linq.lambda.Func1;
+import linq.lambda.ToDoubleFunc1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A builder class for aggregating windows of consecutive elements. Sliding windows move one element at a time,
+ * tumbling windows do not overlap. The aggregates are maintained incrementally as the window moves, instead of
+ * being recomputed for every window.
+ * @param <TSource> The type of the elements in the windows
+ */
+public class WindowBuilder<TSource> {
+    private List<TSource> source;
+    private int size;
+    private int step;
+    private boolean partialWindows;
+
+    WindowBuilder(List<TSource> source, int size, int step, boolean partialWindows) {
+        if (size < 1 || step < 1) {
+            throw new IllegalArgumentException("The size and the step of the window must be at least 1.");
+        }
+
+        this.source = Collections.unmodifiableList(source);
+        this.size = size;
+        this.step = step;
+        this.partialWindows = partialWindows;
+    }
+
+    /**
+     * Converts each window into a result. The windows are read-only views of the collection, they are not copied.
+     * @param converter The converter that converts a window
+     * @param <TResult> The type of the result
+     * @return A QueryBuilder containing a result for each window
+     */
+    public <TResult> QueryBuilder<TResult> then(Func1<List<TSource>, TResult> converter) {
+        var results = new ArrayList<TResult>();
+        for (int start = 0; hasWindow(start); start += step) {
+            results.add(converter.execute(source.subList(start, end(start))));
+        }
+
+        return new QueryBuilder<>(results);
+    }
+
+    /**
+     * Counts the elements of each window.
+     * @return A QueryBuilder containing the size of each window
+     */
+    public QueryBuilder<Integer> thenCount() {
+        var results = new ArrayList<Integer>();
+        for (int start = 0; hasWindow(start); start += step) {
+            results.add(end(start) - start);
+        }
+
+        return new QueryBuilder<>(results);
+    }
+
+    /**
+     * Sums the selected property of the elements of each window. Each step of the window costs O(1).
+     * @param selector The selector that selects the property
+     * @return A QueryBuilder containing the sum of each window
+     */
+    public QueryBuilder<Double> thenSum(ToDoubleFunc1<TSource> selector) {
+        return sums(selector, false);
+    }
+
+    /**
+     * Averages the selected property of the elements of each window. Each step of the window costs O(1).
+     * @param selector The selector that selects the property
+     * @return A QueryBuilder containing the average of each window
+     */
+    public QueryBuilder<Double> thenAverage(ToDoubleFunc1<TSource> selector) {
+        return sums(selector, true);
+    }
+
+    /**
+     * Finds the smallest selected property in each window. Each step of the window costs amortized O(1).
+     * @param selector The selector that selects the property
+     * @return A QueryBuilder containing the minimum of each window
+     */
+    public QueryBuilder<Double> thenMin(ToDoubleFunc1<TSource> selector) {
+        return extremes(selector, 1);
+    }
+
+    /**
+     * Finds the largest selected property in each window. Each step of the window costs amortized O(1).
+     * @param selector The selector that selects the property
+     * @return A QueryBuilder containing the maximum of each window
+     */
+    public QueryBuilder<Double> thenMax(ToDoubleFunc1<TSource> selector) {
+        return extremes(selector, -1);
+    }
+
+    private boolean hasWindow(int start) {
+        return partialWindows ? start < source.size() : start + size <= source.size();
+    }
+
+    private int end(int start) {
+        return Math.min(start + size, source.size());
+    }
+
+    private double[] values(ToDoubleFunc1<TSource> selector) {
+        var values = new double[source.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = selector.applyAsDouble(source.get(i));
+        }
+
+        return values;
+    }
+
+    /**
+     * Keeps a running sum of the window. Elements entering the window are added, elements leaving it are subtracted.
+     * If the finite values overflow the sum, it is computed again from the elements of the window.
+     */
+    private QueryBuilder<Double> sums(ToDoubleFunc1<TSource> selector, boolean average) {
+        var values = values(selector);
+        var results = new ArrayList<Double>();
+
+        var sum = new RunningSum();
+        int entering = 0;
+        int leaving = 0;
+        for (int start = 0; hasWindow(start); start += step) {
+            int end = end(start);
+            for (; entering < end; entering++) {
+                sum.add(values[entering]);
+            }
+
+            for (; leaving < start; leaving++) {
+                sum.remove(values[leaving]);
+            }
+
+            if (sum.hasOverflowed()) {
+                sum = new RunningSum();
+                for (int i = start; i < end; i++) {
+                    sum.add(values[i]);
+                }
+            }
+
+            results.add(average ? sum.get() / (end - start) : sum.get());
+        }
+
+        return new QueryBuilder<>(results);
+    }
+
+    /**
+     * Keeps a deque of the indices of the candidates for the minimum (direction 1) or the maximum (direction -1) of
+     * the window. Every index is added and removed at most once.
+     */
+    private QueryBuilder<Double> extremes(ToDoubleFunc1<TSource> selector, int direction) {
+        var values = values(selector);
+        var results = new ArrayList<Double>();
+
+        var candidates = new int[values.length];
+        int head = 0;
+        int tail = 0;
+        int entering = 0;
+        for (int start = 0; hasWindow(start); start += step) {
+            for (int end = end(start); entering < end; entering++) {
+                while (tail > head && direction * Double.compare(values[candidates[tail - 1]], values[entering]) >= 0) {
+                    tail--;
+                }
+
+                candidates[tail++] = entering;
+            }
+
+            while (candidates[head] < start) {
+                head++;
+            }
+
+            results.add(values[candidates[head]]);
+        }
+
+        return new QueryBuilder<>(results);
+    }
+
+    /**
+     * A sum that values are added to and removed from, compensating the rounding error of each operation with
+     * Neumaier's variant of Kahan summation. Infinite and NaN values are counted instead of being summed, so the sum
+     * is finite again once they leave the window.
+     */
+    private static class RunningSum {
+        private double sum;
+        private double compensation;
+        private int nans;
+        private int positiveInfinities;
+        private int negativeInfinities;
+
+        void add(double value) {
+            update(value, 1);
+        }
+
+        void remove(double value) {
+            update(value, -1);
+        }
+
+        boolean hasOverflowed() {
+            return !Double.isFinite(sum) || !Double.isFinite(compensation);
+        }
+
+        double get() {
+            if (nans > 0 || (positiveInfinities > 0 && negativeInfinities > 0)) {
+                return Double.NaN;
+            } else if (positiveInfinities > 0) {
+                return Double.POSITIVE_INFINITY;
+            } else if (negativeInfinities > 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+
+            return Double.isFinite(sum) ? sum + compensation : sum;
+        }
+
+        private void update(double value, int sign) {
+            if (Double.isNaN(value)) {
+                nans += sign;
+            } else if (value == Double.POSITIVE_INFINITY) {
+                positiveInfinities += sign;
+            } else if (value == Double.NEGATIVE_INFINITY) {
+                negativeInfinities += sign;
+            } else {
+                double addend = sign * value;
+                double total = sum + addend;
+                if (Math.abs(sum) >= Math.abs(addend)) {
+                    compensation += (sum - total) + addend;
+                } else {
+                    compensation += (addend - total) + sum;
+                }
+
+                sum = total;
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package data;
+
+import linq.io.ElementSerializer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class Serializers {
+    public static ElementSerializer<Person> people() {
+        return new ElementSerializer<>() {
+            @Override
+            public void write(DataOutput output, Person element) throws IOException {
+                output.writeUTF(element.getName());
+                output.writeInt(element.getGender().ordinal());
+                output.writeInt(element.getAge());
+            }
+
+            @Override
+            public Person read(DataInput input) throws IOException {
+                return new Person(input.readUTF(), Gender.values()[input.readInt()], input.readInt());
+            }
+        };
+    }
+
+    public static ElementSerializer<Car> cars() {
+        return new ElementSerializer<>() {
+            @Override
+            public void write(DataOutput output, Car element) throws IOException {
+                output.writeUTF(element.getOwnerName());
+                output.writeUTF(element.getLicensePlate());
+            }
+
+            @Override
+            public Car read(DataInput input) throws IOException {
+                return new Car(input.readUTF(), input.readUTF());
+            }
+        };
+    }
+
+    public static ElementSerializer<Integer> integers() {
+        return new ElementSerializer<>() {
+            @Override
+            public void write(DataOutput output, Integer element) throws IOException {
+                output.writeInt(element);
+            }
+
+            @Override
+            public Integer read(DataInput input) throws IOException {
+                return input.readInt();
+            }
+        };
+    }
+}
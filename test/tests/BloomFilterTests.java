@@ -0,0 +1,28 @@
+package tests;
+
+import linq.collections.BloomFilter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BloomFilterTests {
+    @Test
+    public void testNoFalseNegativesAndFewFalsePositives() {
+        var filter = new BloomFilter<Integer>(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.add(i * 2);
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertTrue(filter.mightContain(i * 2));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain(i * 2 + 1)) {
+                falsePositives++;
+            }
+        }
+
+        Assert.assertTrue(falsePositives < 300);
+    }
+}
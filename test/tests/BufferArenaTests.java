@@ -0,0 +1,74 @@
+package tests;
+
+import linq.Linq;
+import linq.query.BufferArena;
+import linq.query.ExecutionPlanner;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class BufferArenaTests {
+    private List<Integer> numbers;
+
+    @Before
+    public void initialize() {
+        numbers = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+    }
+
+    private List<Integer> runQuery(ExecutionPlanner planner) {
+        return Linq.from(numbers).withPlanner(planner)
+                .select(n -> n % 100)
+                .where(n -> n % 2 == 0)
+                .selectDistinct(n -> n / 2)
+                .except(List.of(1, 2, 3))
+                .toList();
+    }
+
+    @Test
+    public void testBuffersAreReusedBetweenStages() {
+        var arena = new BufferArena();
+        var planner = new ExecutionPlanner().bufferArena(arena);
+
+        var expected = runQuery(new ExecutionPlanner());
+        Assert.assertEquals(expected, runQuery(planner));
+        long firstBorrows = arena.getBorrowCount();
+        long firstReuses = arena.getReuseCount();
+        Assert.assertTrue(firstReuses > 0);
+
+        Assert.assertEquals(expected, runQuery(planner));
+        Assert.assertEquals(2 * firstBorrows, arena.getBorrowCount());
+        Assert.assertEquals(firstBorrows, arena.getReuseCount() - firstReuses);
+        Assert.assertTrue(arena.getPooledCount() > 0);
+
+        arena.clear();
+        Assert.assertEquals(0, arena.getPooledCount());
+    }
+
+    @Test
+    public void testLargeBuffersAreNotKept() {
+        var arena = new BufferArena(8, 10);
+        Linq.from(numbers).withPlanner(new ExecutionPlanner().bufferArena(arena)).select(n -> n + 1);
+
+        Assert.assertEquals(1, arena.getBorrowCount());
+        Assert.assertEquals(0, arena.getPooledCount());
+    }
+
+    @Test
+    public void testThreadLocalArenas() throws InterruptedException {
+        var planner = new ExecutionPlanner().threadLocalBufferArenas();
+        var otherArena = new BufferArena[1];
+        var thread = new Thread(() -> {
+            runQuery(planner);
+            otherArena[0] = BufferArena.forCurrentThread();
+        });
+        thread.start();
+        thread.join();
+
+        Assert.assertNotSame(BufferArena.forCurrentThread(), otherArena[0]);
+        Assert.assertTrue(otherArena[0].getReuseCount() > 0);
+    }
+}
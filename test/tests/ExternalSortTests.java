@@ -0,0 +1,58 @@
+package tests;
+
+import data.DataProvider;
+import data.Person;
+import data.Serializers;
+import linq.Linq;
+import linq.io.ElementSerializer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+public class ExternalSortTests {
+    private ArrayList<Person> testCollection;
+    private ElementSerializer<Person> serializer;
+
+    @Before
+    public void initialize() {
+        testCollection = DataProvider.getPeople();
+        serializer = Serializers.people();
+    }
+
+    @Test
+    public void testSpillingOrderByAge() {
+        var orderedCollection = Linq.from(testCollection)
+                .orderBy(p -> p.getAge())
+                .spillToDisk(1, serializer)
+                .select(p -> p.getName())
+                .toList();
+
+        var comparedCollection = DataProvider.getPeopleOrderedByAge();
+        Assert.assertEquals(comparedCollection.size(), orderedCollection.size());
+        for (int i = 0; i < orderedCollection.size(); i++) {
+            Assert.assertEquals(comparedCollection.get(i).getName(), orderedCollection.get(i));
+        }
+    }
+
+    @Test
+    public void testSpillingKeepsThenByChain() {
+        var inMemory = Linq.from(testCollection)
+                .orderBy(p -> p.getGender())
+                .thenByDescending(p -> p.getAge())
+                .select(p -> p.getName())
+                .toList();
+
+        var names = new ArrayList<String>();
+        try (var iterator = Linq.from(testCollection)
+                .orderBy(p -> p.getGender())
+                .spillToDisk(3, serializer)
+                .thenByDescending(p -> p.getAge())
+                .iterator()) {
+            iterator.forEachRemaining(p -> names.add(p.getName()));
+        }
+
+        Assert.assertEquals(inMemory, names);
+    }
+}
@@ -0,0 +1,62 @@
+package tests;
+
+import linq.Linq;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+
+public class GeneratorTests {
+    @Test
+    public void testRange() {
+        Assert.assertEquals(List.of(5, 6, 7), Linq.range(5, 3).toList());
+        Assert.assertEquals(0, Linq.range(5, 0).count());
+        Assert.assertEquals(List.of(Integer.MAX_VALUE - 1, Integer.MAX_VALUE), Linq.range(Integer.MAX_VALUE - 1, 2).toList());
+        Assert.assertEquals(List.of(4, 16), Linq.range(1, 1000000000).select(n -> n * n).where(n -> n % 2 == 0).take(2).toList());
+    }
+
+    @Test
+    public void testRangeSplitsForParallelStreams() {
+        var spliterator = Linq.range(0, 1000).toStream().spliterator();
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SORTED | Spliterator.DISTINCT));
+        Assert.assertEquals(1000, spliterator.getExactSizeIfKnown());
+
+        long sum = Linq.range(0, 100000).toStream().parallel().mapToLong(n -> n).sum();
+        Assert.assertEquals(4999950000L, sum);
+    }
+
+    @Test
+    public void testRangeEndingAtMaxValue() {
+        Assert.assertEquals(List.of(Integer.MAX_VALUE - 1, Integer.MAX_VALUE), Linq.range(Integer.MAX_VALUE - 1, 2).take(5).toList());
+
+        var iterator = Linq.range(Integer.MAX_VALUE, 1).iterator();
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertEquals(Integer.valueOf(Integer.MAX_VALUE), iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+
+        var spliterator = Linq.range(Integer.MAX_VALUE - 2, 3).toStream().spliterator();
+        var drained = new ArrayList<Integer>();
+        spliterator.forEachRemaining(drained::add);
+        Assert.assertEquals(3, drained.size());
+        Assert.assertFalse(spliterator.tryAdvance(drained::add));
+        Assert.assertEquals(0, spliterator.estimateSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRangePastMaxValue() {
+        Linq.range(Integer.MAX_VALUE, 2);
+    }
+
+    @Test
+    public void testRepeatAndGenerate() {
+        Assert.assertEquals(List.of("a", "a", "a"), Linq.repeat("a", 3).toList());
+        Assert.assertEquals(1000000000, Linq.repeat("a", 1000000000).count());
+
+        int[] counter = { 0 };
+        Assert.assertEquals(List.of(1, 2, 3), Linq.generate(() -> ++counter[0]).take(3).toList());
+        Assert.assertTrue(Linq.generate(() -> ++counter[0]).any(n -> n > 10));
+        Assert.assertEquals(Integer.valueOf(12), Linq.generate(() -> ++counter[0]).first());
+    }
+}
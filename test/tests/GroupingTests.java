@@ -0,0 +1,44 @@
+package tests;
+
+import data.DataProvider;
+import data.Gender;
+import data.Person;
+import data.Serializers;
+import linq.Linq;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+public class GroupingTests {
+    private ArrayList<Person> testCollection;
+
+    @Before
+    public void initialize() {
+        testCollection = DataProvider.getPeople();
+    }
+
+    @Test
+    public void testGroupByGender() {
+        var groups = Linq.from(testCollection)
+                .groupBy(p -> p.getGender())
+                .toList();
+
+        Assert.assertEquals(2, groups.size());
+        Assert.assertEquals(Gender.MALE, groups.get(0).getKey());
+        Assert.assertEquals(DataProvider.MALECOUNT, groups.get(0).count());
+        Assert.assertEquals("Maca", groups.get(1).single().getName());
+    }
+
+    @Test
+    public void testSpillingGroupBy() {
+        var counts = Linq.from(testCollection)
+                .groupBy(p -> p.getGender(), g -> g.getKey() + ":" + g.count(), 1, Serializers.people())
+                .toList();
+
+        Assert.assertEquals(2, counts.size());
+        Assert.assertTrue(counts.contains("MALE:" + DataProvider.MALECOUNT));
+        Assert.assertTrue(counts.contains("FEMALE:1"));
+    }
+}
@@ -0,0 +1,55 @@
+package tests;
+
+import data.DataProvider;
+import data.Person;
+import linq.Linq;
+import linq.collections.IntColumn;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class IntColumnTests {
+    private ArrayList<Person> people;
+
+    @Before
+    public void initialize() {
+        people = DataProvider.getPeople();
+    }
+
+    @Test
+    public void testSelectIntAggregates() {
+        var ages = Linq.from(people).selectInt(Person::getAge);
+
+        Assert.assertArrayEquals(new int[] { 48, 56, 57, 22 }, ages.toArray());
+        Assert.assertEquals(183, ages.sum());
+        Assert.assertEquals(22, ages.min());
+        Assert.assertEquals(57, ages.max());
+        Assert.assertEquals(45.75, ages.average(), 0);
+    }
+
+    @Test
+    public void testWhereIntBetween() {
+        var names = Linq.from(people)
+                .whereIntBetween(Person::getAge, 30, 56)
+                .select(p -> p.getName())
+                .toList();
+
+        Assert.assertEquals(List.of("SAndor", "Maca"), names);
+    }
+
+    @Test
+    public void testFiltersAtTheLimitsOfInt() {
+        var column = new IntColumn(new int[] { Integer.MIN_VALUE, -5, 0, 5, Integer.MAX_VALUE });
+
+        Assert.assertArrayEquals(new int[] { 1, 2, 3 }, column.indicesBetween(-5, 5));
+        Assert.assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, column.indicesBetween(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        Assert.assertArrayEquals(new int[0], column.indicesBetween(5, -5));
+        Assert.assertArrayEquals(new int[] { 0, 1 }, column.indicesLessThan(0));
+        Assert.assertArrayEquals(new int[] { 4 }, column.indicesEqualTo(Integer.MAX_VALUE));
+        Assert.assertEquals(2, column.countBetween(0, Integer.MAX_VALUE - 1));
+        Assert.assertEquals(-1, column.sum());
+    }
+}
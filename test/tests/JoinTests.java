@@ -4,12 +4,14 @@ import data.Car;
 import data.DataProvider;
 import data.OwnerData;
 import data.Person;
+import data.Serializers;
 import linq.Linq;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public class JoinTests {
     private ArrayList<Person> people;
@@ -43,4 +45,94 @@ public class JoinTests {
             Assert.assertEquals(referenceCollection.get(i), joinedCollection.get(i));
         }
     }
+
+    @Test
+    public void testHashJoinPeopleWithCars() {
+        var joinedCollection = Linq.from(people)
+                .join(cars)
+                .on(p -> p.getName(), c -> c.getOwnerName())
+                .into((p, c) -> new OwnerData(p.getName(), p.getAge(), p.getGender(), c.getLicensePlate()))
+                .toList();
+
+        var referenceCollection = DataProvider.joinedCollection();
+        Assert.assertEquals(referenceCollection.size(), joinedCollection.size());
+        for (int i = 0; i < joinedCollection.size(); i++) {
+            Assert.assertEquals(referenceCollection.get(i), joinedCollection.get(i));
+        }
+    }
+
+    @Test
+    public void testSpillingHashJoinPeopleWithCars() {
+        var joinedCollection = Linq.from(people)
+                .join(cars)
+                .on(p -> p.getName(), c -> c.getOwnerName())
+                .withMemoryBudget(1, Serializers.people(), Serializers.cars())
+                .into((p, c) -> new OwnerData(p.getName(), p.getAge(), p.getGender(), c.getLicensePlate()))
+                .toList();
+
+        var referenceCollection = DataProvider.joinedCollection();
+        Assert.assertEquals(referenceCollection.size(), joinedCollection.size());
+        for (var data : referenceCollection) {
+            Assert.assertTrue(joinedCollection.contains(data));
+        }
+    }
+
+    @Test
+    public void testWhereExists() {
+        var owners = Linq.from(people)
+                .whereExists(cars, p -> p.getName(), c -> c.getOwnerName())
+                .select(p -> p.getName())
+                .toList();
+        var ownersWithBloomFilter = Linq.from(people)
+                .whereExists(cars, p -> p.getName(), c -> c.getOwnerName(), 0.01)
+                .select(p -> p.getName())
+                .toList();
+
+        Assert.assertEquals(List.of("SAndor", "Tamás"), owners);
+        Assert.assertEquals(owners, ownersWithBloomFilter);
+    }
+
+    @Test
+    public void testWhereNotExists() {
+        var peopleWithoutCar = Linq.from(people)
+                .whereNotExists(cars, p -> p.getName(), c -> c.getOwnerName(), 0.01)
+                .select(p -> p.getName())
+                .toList();
+        var carsWithoutOwner = Linq.from(cars)
+                .whereNotExists(people, c -> c.getOwnerName(), p -> p.getName())
+                .count();
+
+        Assert.assertEquals(List.of("Maca", "Papp Zsolt"), peopleWithoutCar);
+        Assert.assertEquals(0, carsWithoutOwner);
+    }
+
+    @Test
+    public void testLeftJoin() {
+        var licensePlates = Linq.from(people)
+                .leftJoin(cars, p -> p.getName(), c -> c.getOwnerName(),
+                        (p, c) -> p.getName() + ": " + (c != null ? c.getLicensePlate() : "-"))
+                .toList();
+
+        Assert.assertEquals(List.of("SAndor: SQL-123", "Maca: -", "Papp Zsolt: -", "Tamás: FOS-999", "Tamás: PRO-000"), licensePlates);
+    }
+
+    @Test
+    public void testFullJoin() {
+        cars.add(new Car("Nobody", "ABC-111"));
+        var licensePlates = Linq.from(people)
+                .fullJoin(cars, p -> p.getName(), c -> c.getOwnerName(),
+                        (p, c) -> (p != null ? p.getName() : "-") + ": " + (c != null ? c.getLicensePlate() : "-"))
+                .toList();
+
+        Assert.assertEquals(List.of("SAndor: SQL-123", "Maca: -", "Papp Zsolt: -", "Tamás: FOS-999", "Tamás: PRO-000", "-: ABC-111"), licensePlates);
+    }
+
+    @Test
+    public void testGroupJoin() {
+        var carCounts = Linq.from(people)
+                .groupJoin(cars, p -> p.getName(), c -> c.getOwnerName(), (p, ownedCars) -> ownedCars.size())
+                .toList();
+
+        Assert.assertEquals(List.of(1, 0, 0, 2), carCounts);
+    }
 }
@@ -0,0 +1,159 @@
+package tests;
+
+import data.Serializers;
+import linq.Linq;
+import linq.exceptions.MemoryBudgetExceededException;
+import linq.query.ExecutionPlanner;
+import linq.query.MemoryBudget;
+import linq.query.Strategy;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class MemoryBudgetTests {
+    private List<Integer> numbers;
+    private List<Integer> keys;
+
+    @Before
+    public void initialize() {
+        numbers = IntStream.range(0, 2000).map(n -> n % 1000).boxed().collect(Collectors.toList());
+        keys = IntStream.range(0, 2000).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testReservations() {
+        var budget = new MemoryBudget(1000);
+        var reservation = budget.reserve(400, "First");
+        var otherReservation = budget.reserve(500, "Second");
+        try (otherReservation) {
+            Assert.assertEquals(900, budget.getUsedBytes());
+            budget.reserve(200, "Third");
+            Assert.fail();
+        } catch (MemoryBudgetExceededException e) {
+            Assert.assertEquals(200, e.getRequestedBytes());
+            Assert.assertEquals(100, e.getAvailableBytes());
+            Assert.assertTrue(e.getMessage().startsWith("Third"));
+        }
+
+        Assert.assertEquals(400, budget.getUsedBytes());
+        reservation.close();
+        reservation.close();
+        Assert.assertEquals(0, budget.getUsedBytes());
+        Assert.assertEquals(900, budget.getLastExecutionPeakBytes());
+        Assert.assertEquals(900, budget.getPeakBytes());
+    }
+
+    @Test
+    public void testQueryPeakIsReleased() {
+        var budget = new MemoryBudget(1 << 20);
+        var ordered = Linq.from(numbers).withPlanner(new ExecutionPlanner().memoryBudget(budget))
+                .where(n -> n % 2 == 0)
+                .orderBy(n -> n)
+                .toList();
+
+        Assert.assertEquals(1000, ordered.size());
+        Assert.assertEquals(0, budget.getUsedBytes());
+        Assert.assertTrue(budget.getLastExecutionPeakBytes() > MemoryBudget.estimateListBytes(1000));
+    }
+
+    @Test
+    public void testOrderingFailsFast() {
+        var budget = new MemoryBudget(10000);
+        var query = Linq.from(numbers).withPlanner(new ExecutionPlanner().memoryBudget(budget)).orderBy(n -> n);
+        try {
+            query.toList();
+            Assert.fail();
+        } catch (MemoryBudgetExceededException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Ordering"));
+        }
+
+        Assert.assertEquals(0, budget.getUsedBytes());
+    }
+
+    @Test(expected = MemoryBudgetExceededException.class)
+    public void testJoinWithoutSerializersFailsFast() {
+        var planner = new ExecutionPlanner().logDecisions(true).nestedLoopJoinThreshold(0).memoryBudget(new MemoryBudget(60000));
+        Linq.from(numbers).withPlanner(planner).join(keys).on(n -> n, k -> k).into((n, k) -> n);
+    }
+
+    @Test
+    public void testJoinSpillsWhenOverBudget() {
+        var planner = new ExecutionPlanner().logDecisions(true).nestedLoopJoinThreshold(0).memoryBudget(new MemoryBudget(60000));
+        var joined = Linq.from(numbers).withPlanner(planner)
+                .join(keys)
+                .on(n -> n, k -> k)
+                .withMemoryBudget(1000, Serializers.integers(), Serializers.integers())
+                .into((n, k) -> n + k)
+                .toList();
+
+        Assert.assertEquals(Strategy.GRACE_HASH_JOIN, planner.getLastDecision().getStrategy());
+        Assert.assertEquals(numbers.stream().map(n -> 2 * n).sorted().collect(Collectors.toList()),
+                joined.stream().sorted().collect(Collectors.toList()));
+        Assert.assertEquals(0, planner.getMemoryBudget().getUsedBytes());
+    }
+
+    @Test
+    public void testGroupingSpillsWhenOverBudget() {
+        var planner = new ExecutionPlanner().logDecisions(true).memoryBudget(new MemoryBudget(60000));
+        var counts = Linq.from(numbers).withPlanner(planner)
+                .groupBy(n -> n % 10, g -> g.count(), 1000000, Serializers.integers())
+                .toList();
+
+        Assert.assertEquals(Strategy.GRACE_HASH_AGGREGATION, planner.getLastDecision().getStrategy());
+        Assert.assertEquals(10, counts.size());
+        Assert.assertTrue(counts.stream().allMatch(count -> count == 200));
+    }
+
+    @Test
+    public void testOuterJoinsFailFast() {
+        var budget = new MemoryBudget(60000);
+        var query = Linq.from(numbers).withPlanner(new ExecutionPlanner().memoryBudget(budget));
+
+        assertExceeded(() -> query.leftJoin(keys, n -> n, k -> k, (n, k) -> n), "Left join");
+        assertExceeded(() -> query.fullJoin(keys, n -> n, k -> k, (n, k) -> n), "Full join");
+        assertExceeded(() -> query.groupJoin(keys, n -> n, k -> k, (n, matches) -> matches.size()), "Group join");
+        Assert.assertEquals(0, budget.getUsedBytes());
+    }
+
+    @Test
+    public void testKeySetOperationsFailFast() {
+        var budget = new MemoryBudget(60000);
+        var query = Linq.from(numbers).withPlanner(new ExecutionPlanner().memoryBudget(budget));
+
+        assertExceeded(() -> query.unionBy(numbers, n -> n), "Union");
+        assertExceeded(() -> query.intersectBy(keys, n -> n), "Intersection");
+        assertExceeded(() -> query.exceptBy(keys, n -> n), "Difference");
+        assertExceeded(() -> query.whereExists(keys, n -> n, k -> k), "Semi-join");
+        Assert.assertEquals(0, budget.getUsedBytes());
+    }
+
+    @Test
+    public void testOuterJoinFitsBudget() {
+        var budget = new MemoryBudget(1 << 20);
+        var joined = Linq.from(numbers).withPlanner(new ExecutionPlanner().memoryBudget(budget))
+                .leftJoin(keys, n -> n, k -> k, (n, k) -> k)
+                .toList();
+
+        Assert.assertEquals(numbers, joined);
+        Assert.assertEquals(0, budget.getUsedBytes());
+        Assert.assertTrue(budget.getLastExecutionPeakBytes() >= MemoryBudget.estimateHashBytes(keys.size()));
+    }
+
+    private static void assertExceeded(Runnable operation, String name) {
+        try {
+            operation.run();
+            Assert.fail();
+        } catch (MemoryBudgetExceededException e) {
+            Assert.assertTrue(e.getMessage().startsWith(name));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBudget() {
+        new MemoryBudget(0);
+    }
+}
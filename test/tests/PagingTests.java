@@ -0,0 +1,47 @@
+package tests;
+
+import linq.Linq;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class PagingTests {
+    private List<Integer> numbers;
+
+    @Before
+    public void initialize() {
+        numbers = List.of(7, 3, 9, 1, 5, 8, 2);
+    }
+
+    @Test
+    public void testSliceIsClamped() {
+        Assert.assertEquals(List.of(9, 1, 5, 8, 2), Linq.from(numbers).slice(2, 100));
+        Assert.assertEquals(List.of(), Linq.from(numbers).slice(10, 20));
+    }
+
+    @Test
+    public void testPage() {
+        var ordered = Linq.from(numbers).orderBy(n -> n);
+
+        Assert.assertEquals(List.of(1, 2, 3), ordered.page(0, 3));
+        Assert.assertEquals(List.of(9), ordered.page(2, 3));
+        Assert.assertEquals(List.of(), ordered.page(3, 3));
+    }
+
+    @Test
+    public void testKeysetPaging() {
+        var pager = Linq.from(numbers).orderByDescending(n -> n).toPager();
+
+        var firstPage = pager.first(3);
+        Assert.assertEquals(List.of(9, 8, 7), firstPage);
+
+        var secondPage = pager.after(firstPage.get(firstPage.size() - 1), 3);
+        Assert.assertEquals(List.of(5, 3, 2), secondPage);
+
+        Assert.assertEquals(List.of(1), pager.after(2, 3));
+        Assert.assertEquals(List.of(), pager.after(1, 3));
+        Assert.assertEquals(List.of(9, 8, 7), pager.before(5, 3));
+    }
+}
@@ -0,0 +1,101 @@
+package tests;
+
+import data.DataProvider;
+import data.Person;
+import linq.Linq;
+import linq.lambda.Func1;
+import linq.orders.Selection;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+public class PercentileTests {
+    private ArrayList<Person> people;
+
+    @Before
+    public void initialize() {
+        people = DataProvider.getPeople();
+    }
+
+    @Test
+    public void testNthMedianPercentile() {
+        var query = Linq.from(people);
+
+        Assert.assertEquals(Integer.valueOf(22), query.nth(p -> p.getAge(), 0));
+        Assert.assertEquals(Integer.valueOf(56), query.nth(p -> p.getAge(), 2));
+        Assert.assertEquals(Integer.valueOf(48), query.median(p -> p.getAge()));
+        Assert.assertEquals(Integer.valueOf(57), query.percentile(p -> p.getAge(), 99));
+        Assert.assertEquals(Integer.valueOf(22), query.percentile(p -> p.getAge(), 0));
+        Assert.assertEquals("Papp Zsolt", query.median(p -> p.getName()));
+    }
+
+    @Test
+    public void testPrimitiveVariants() {
+        var query = Linq.from(people);
+
+        Assert.assertEquals(57, query.nthInt(Person::getAge, 3));
+        Assert.assertEquals(48, query.nthDouble(p -> p.getAge(), 1), 0);
+        Assert.assertEquals(52, query.medianDouble(p -> p.getAge()), 0);
+        Assert.assertEquals(56.97, query.percentileDouble(p -> p.getAge(), 99), 1e-9);
+    }
+
+    @Test
+    public void testNthOnOrderedQuery() {
+        var counter = new AgeCounter();
+        Func1<Person, Integer> ageSelector = counter::age;
+        var ordered = Linq.from(people).orderByDescending(ageSelector).select();
+        int calls = counter.calls;
+
+        Assert.assertEquals(Integer.valueOf(56), ordered.nth(ageSelector, 2));
+        Assert.assertTrue(counter.calls <= calls + 1);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testMedianOfEmptyCollection() {
+        Linq.from(new ArrayList<Person>()).median(p -> p.getAge());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNthOutOfRange() {
+        Linq.from(people).nth(p -> p.getAge(), 4);
+    }
+
+    @Test
+    public void testSelectionMatchesSort() {
+        var random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            var values = new int[1 + random.nextInt(2000)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(round % 2 == 0 ? 10 : Integer.MAX_VALUE);
+            }
+
+            var sorted = values.clone();
+            Arrays.sort(sorted);
+            var doubles = Arrays.stream(values).asDoubleStream().toArray();
+            var boxed = Arrays.stream(values).boxed().toArray(Integer[]::new);
+            int k = random.nextInt(values.length);
+
+            Assert.assertEquals(sorted[k], Selection.select(values, k));
+            Assert.assertEquals(sorted[k], Selection.select(doubles, k), 0);
+            Assert.assertEquals(Integer.valueOf(sorted[k]), Selection.select(boxed, k, Comparator.naturalOrder()));
+            for (int i = 0; i < values.length; i++) {
+                Assert.assertTrue(i < k ? values[i] <= sorted[k] : values[i] >= sorted[k]);
+            }
+        }
+    }
+
+    private static class AgeCounter {
+        private int calls;
+
+        Integer age(Person person) {
+            calls++;
+            return person.getAge();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package tests;
+
+import data.Car;
+import data.DataProvider;
+import data.Person;
+import data.Serializers;
+import linq.Linq;
+import linq.lambda.Func1;
+import linq.query.ExecutionPlanner;
+import linq.query.Strategy;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class PlannerTests {
+    private ArrayList<Person> people;
+    private ArrayList<Car> cars;
+    private ExecutionPlanner planner;
+    private List<Integer> numbers;
+
+    @Before
+    public void initialize() {
+        people = DataProvider.getPeople();
+        cars = DataProvider.getCars();
+        planner = new ExecutionPlanner().logDecisions(true);
+        numbers = IntStream.range(0, 2000).map(n -> (n * 7919) % 1000).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testJoinStrategies() {
+        var nestedLoop = Linq.from(people).withPlanner(planner)
+                .join(cars)
+                .on(p -> p.getName(), c -> c.getOwnerName())
+                .into((p, c) -> c.getLicensePlate())
+                .toList();
+        Assert.assertEquals(Strategy.NESTED_LOOP_JOIN, planner.getLastDecision().getStrategy());
+
+        planner.nestedLoopJoinThreshold(0);
+        var hash = Linq.from(people).withPlanner(planner)
+                .join(cars)
+                .on(p -> p.getName(), c -> c.getOwnerName())
+                .into((p, c) -> c.getLicensePlate())
+                .toList();
+        Assert.assertEquals(Strategy.HASH_JOIN, planner.getLastDecision().getStrategy());
+
+        Linq.from(people).withPlanner(planner)
+                .join(cars)
+                .on(p -> p.getName(), c -> c.getOwnerName())
+                .withMemoryBudget(1, Serializers.people(), Serializers.cars())
+                .into((p, c) -> c.getLicensePlate());
+        Assert.assertEquals(Strategy.GRACE_HASH_JOIN, planner.getLastDecision().getStrategy());
+
+        Assert.assertEquals(List.of("SQL-123", "FOS-999", "PRO-000"), nestedLoop);
+        Assert.assertEquals(nestedLoop, hash);
+    }
+
+    @Test
+    public void testTopK() {
+        var top = Linq.from(numbers).withPlanner(planner).orderByDescending(n -> n).take(5).toList();
+        Assert.assertEquals(Strategy.TOP_K, planner.getLastDecision().getStrategy());
+        Assert.assertEquals(List.of(999, 999, 998, 998, 997), top);
+
+        var stable = Linq.from(people).withPlanner(planner.topKFraction(1)).orderBy(p -> p.getName().length()).take(2)
+                .select(p -> p.getName()).toList();
+        Assert.assertEquals(Linq.from(people).orderBy(p -> p.getName().length()).select(p -> p.getName()).take(2).toList(), stable);
+
+        Linq.from(numbers).withPlanner(planner.topKFraction(0)).orderBy(n -> n).take(5);
+        Assert.assertEquals(Strategy.SORT, planner.getLastDecision().getStrategy());
+    }
+
+    @Test
+    public void testParallelSort() {
+        var sorted = Linq.from(numbers).withPlanner(planner.parallelSort(ForkJoinPool.commonPool(), 100))
+                .orderBy(n -> n, (n, m) -> Integer.compare(n, m))
+                .toList();
+
+        Assert.assertEquals(Strategy.PARALLEL_SORT, planner.getLastDecision().getStrategy());
+        Assert.assertEquals(numbers.stream().sorted().collect(Collectors.toList()), sorted);
+    }
+
+    @Test
+    public void testSortIsSequentialByDefault() {
+        var large = IntStream.range(0, (1 << 17) + 1).map(n -> -n).boxed().collect(Collectors.toList());
+        var sorted = Linq.from(large).withPlanner(planner).orderBy(n -> n).toList();
+
+        Assert.assertEquals(Strategy.SORT, planner.getLastDecision().getStrategy());
+        Assert.assertEquals(Integer.valueOf(-(1 << 17)), sorted.get(0));
+    }
+
+    @Test
+    public void testDistinctStrategies() {
+        var query = Linq.from(numbers).withPlanner(planner);
+        var hashed = query.selectDistinct().toList();
+        Assert.assertEquals(Strategy.HASH_DISTINCT, planner.getLastDecision().getStrategy());
+        Assert.assertEquals(1000, hashed.size());
+
+        Linq.from(List.of(3, 1, 3)).withPlanner(planner).selectDistinct();
+        Assert.assertEquals(Strategy.LINEAR_DISTINCT, planner.getLastDecision().getStrategy());
+
+        Func1<Integer, Integer> identity = Func1.identity();
+        var sorted = query.orderBy(identity).selectDistinct(identity).toList();
+        Assert.assertEquals(Strategy.SORTED_DISTINCT, planner.getLastDecision().getStrategy());
+        Assert.assertEquals(IntStream.range(0, 1000).boxed().collect(Collectors.toList()), sorted);
+
+        Linq.from(sorted).withPlanner(planner).selectDistinct().selectDistinct();
+        Assert.assertEquals(Strategy.ALREADY_DISTINCT, planner.getLastDecision().getStrategy());
+    }
+
+    @Test
+    public void testAggregationStrategies() {
+        Func1<Integer, Integer> lastDigit = n -> n % 10;
+        var hashed = Linq.from(numbers).withPlanner(planner).orderBy(n -> n % 10).groupBy(lastDigit, g -> g.count()).toList();
+        Assert.assertEquals(Strategy.HASH_AGGREGATION, planner.getLastDecision().getStrategy());
+
+        var sorted = Linq.from(numbers).withPlanner(planner).orderBy(lastDigit).groupBy(lastDigit, g -> g.count()).toList();
+        Assert.assertEquals(Strategy.SORTED_AGGREGATION, planner.getLastDecision().getStrategy());
+        Assert.assertEquals(hashed, sorted);
+    }
+
+    @Test
+    public void testSampledFilter() {
+        var small = Linq.from(people).withPlanner(planner).where(p -> p.getAge() > 20).count();
+        Assert.assertEquals(Strategy.FILTER, planner.getLastDecision().getStrategy());
+
+        var large = Linq.from(numbers).withPlanner(planner).where(n -> n < 250).count();
+        var decision = planner.getLastDecision();
+        Assert.assertEquals(Strategy.SAMPLED_FILTER, decision.getStrategy());
+        Assert.assertTrue(decision.getDescription().startsWith("2000 elements, sampled selectivity"));
+        Assert.assertEquals(500, large);
+        Assert.assertEquals(Linq.from(people).count(p -> p.getAge() > 20), small);
+    }
+
+    @Test
+    public void testDecisionLog() {
+        for (int i = 0; i < 150; i++) {
+            Linq.from(people).withPlanner(planner).where(p -> true);
+        }
+
+        Assert.assertEquals(100, planner.getDecisions().size());
+        planner.clearDecisions();
+        Assert.assertNull(planner.getLastDecision());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTopKFraction() {
+        planner.topKFraction(1.5);
+    }
+
+    @Test
+    public void testDecisionLogIsOffByDefault() {
+        var quiet = new ExecutionPlanner();
+        Linq.from(numbers).withPlanner(quiet).where(n -> n < 250).orderBy(n -> n).take(5);
+
+        Assert.assertNull(quiet.getLastDecision());
+        Assert.assertTrue(quiet.getDecisions().isEmpty());
+    }
+}
@@ -0,0 +1,71 @@
+package tests;
+
+import data.DataProvider;
+import data.Person;
+import linq.Linq;
+import linq.lambda.Func1;
+import linq.lambda.Predicate1;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class PrimitiveLambdaTests {
+    private ArrayList<Person> people;
+
+    @Before
+    public void initialize() {
+        people = DataProvider.getPeople();
+    }
+
+    @Test
+    public void testPredicateOverloads() {
+        Predicate1<Person> olderThan50 = p -> p.getAge() > 50;
+        var query = Linq.from(people);
+
+        Assert.assertEquals(2, query.where(olderThan50).count());
+        Assert.assertEquals(2, query.count(olderThan50));
+        Assert.assertTrue(query.any(olderThan50));
+        Assert.assertFalse(query.all(olderThan50));
+        Assert.assertEquals("Maca", query.first(olderThan50).getName());
+        Assert.assertEquals("Papp Zsolt", query.last(olderThan50).getName());
+        Assert.assertEquals("Tamás", query.single(olderThan50.negate().and(p -> p.getAge() < 30)).getName());
+        Assert.assertEquals(2, query.when(olderThan50).thenCount());
+        Assert.assertEquals(2, people.stream().filter(olderThan50).count());
+    }
+
+    @Test
+    public void testFuncConditionStillWorks() {
+        Func1<Person, Boolean> youngerThan30 = p -> p.getAge() < 30;
+        Func1<Person, Boolean> predicateAsFunc = (Predicate1<Person>) p -> p.getAge() < 30;
+
+        Assert.assertEquals("Tamás", Linq.from(people).single(youngerThan30).getName());
+        Assert.assertSame(predicateAsFunc, Predicate1.of(predicateAsFunc));
+        Assert.assertEquals(List.of(22), Linq.from(Linq.from(people).toStream()).where(youngerThan30).select(p -> p.getAge()).toList());
+    }
+
+    @Test
+    public void testPrimitiveOrderings() {
+        var byAgeDescending = Linq.from(people)
+                .orderByIntDescending(Person::getAge)
+                .select(p -> p.getName())
+                .toList();
+        var byGenderThenAge = Linq.from(people)
+                .orderBy(p -> p.getGender())
+                .thenByDouble(p -> p.getAge() / 10.0)
+                .select(p -> p.getName())
+                .toList();
+        var byLongAge = Linq.from(people)
+                .orderByLong(p -> (long) p.getAge())
+                .toStream()
+                .map(p -> p.getName())
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(List.of("Papp Zsolt", "Maca", "SAndor", "Tamás"), byAgeDescending);
+        Assert.assertEquals(List.of("Tamás", "SAndor", "Papp Zsolt", "Maca"), byGenderThenAge);
+        Assert.assertEquals(List.of("Tamás", "SAndor", "Maca", "Papp Zsolt"), byLongAge);
+    }
+}
@@ -0,0 +1,77 @@
+package tests;
+
+import data.DataProvider;
+import data.Person;
+import linq.Linq;
+import linq.collections.IntIntMap;
+import linq.collections.IntObjectMap;
+import linq.collections.LongObjectMap;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class PrimitiveMapTests {
+    private ArrayList<Person> people;
+
+    @Before
+    public void initialize() {
+        people = DataProvider.getPeople();
+    }
+
+    @Test
+    public void testToIntMap() {
+        var namesByAge = Linq.from(people).toIntMap(Person::getAge, p -> p.getName());
+
+        Assert.assertEquals(4, namesByAge.size());
+        Assert.assertEquals("Maca", namesByAge.get(56));
+        Assert.assertNull(namesByAge.get(30));
+        Assert.assertEquals("-", namesByAge.getOrDefault(30, "-"));
+    }
+
+    @Test
+    public void testLookupsAndCounts() {
+        var byDecade = Linq.from(people).toIntLookup(p -> p.getAge() / 10);
+        Assert.assertEquals(List.of("Maca", "Papp Zsolt"), Linq.from(byDecade.get(5)).select(p -> p.getName()).toList());
+
+        var orderedByDecade = Linq.from(people).orderByDescending(p -> p.getAge()).toLongLookup(p -> p.getAge() / 10L);
+        Assert.assertEquals(List.of("Papp Zsolt", "Maca"), Linq.from(orderedByDecade.get(5L)).select(p -> p.getName()).toList());
+
+        var counts = Linq.from(people).countByInt(p -> p.getAge() / 10);
+        Assert.assertEquals(2, counts.getOrDefault(5, 0));
+        Assert.assertEquals(0, counts.getOrDefault(3, 0));
+
+        var keys = counts.keys();
+        Arrays.sort(keys);
+        Assert.assertArrayEquals(new int[] { 2, 4, 5 }, keys);
+    }
+
+    @Test
+    public void testMapsGrowAndKeepEveryKey() {
+        var objects = new IntObjectMap<Integer>();
+        var longObjects = new LongObjectMap<Long>(2);
+        var ints = new IntIntMap();
+        for (int i = -5000; i < 5000; i++) {
+            objects.put(i * 31, i);
+            longObjects.put(i * 1_000_000_007L, (long) i);
+            ints.add(i % 100, 1);
+        }
+
+        Assert.assertEquals(10000, objects.size());
+        Assert.assertEquals(10000, longObjects.size());
+        Assert.assertEquals(199, ints.size());
+        for (int i = -5000; i < 5000; i++) {
+            Assert.assertEquals(Integer.valueOf(i), objects.get(i * 31));
+            Assert.assertEquals(Long.valueOf(i), longObjects.get(i * 1_000_000_007L));
+        }
+
+        Assert.assertEquals(Integer.valueOf(0), objects.put(0, 42));
+        Assert.assertTrue(objects.containsKey(0));
+        Assert.assertFalse(objects.containsKey(1));
+        Assert.assertEquals(100, ints.getOrDefault(0, -1));
+        Assert.assertEquals(50, ints.getOrDefault(99, -1));
+    }
+}
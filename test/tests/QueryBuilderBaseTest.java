@@ -68,4 +68,14 @@ public class QueryBuilderBaseTest {
         var first = Linq.from(testCollection).first(p -> p.getGender() == Gender.FEMALE);
         Assert.assertEquals("Maca", first.getName());
     }
+
+    @Test
+    public void testForEachWithImplicitLambda() {
+        var names = new ArrayList<String>();
+        Linq.from(testCollection).forEach(p -> names.add(p.getName()));
+        Linq.from(testCollection).orderBy(p -> p.getAge()).forEach(p -> names.add(p.getName()));
+
+        Assert.assertEquals(2 * testCollection.size(), names.size());
+        Assert.assertEquals(testCollection.get(0).getName(), names.get(0));
+    }
 }
@@ -0,0 +1,67 @@
+package tests;
+
+import data.DataProvider;
+import data.Person;
+import linq.Linq;
+import linq.cache.QueryCache;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class QueryCacheTests {
+    private ArrayList<Person> people;
+    private int executions;
+
+    @Before
+    public void initialize() {
+        people = DataProvider.getPeople();
+        executions = 0;
+    }
+
+    private List<String> namesOlderThan40() {
+        executions++;
+        return Linq.from(people).where(p -> p.getAge() > 40).select(p -> p.getName()).toList();
+    }
+
+    @Test
+    public void testCachedResultIsReused() {
+        var cache = new QueryCache<String, List<String>>(10);
+        var names = cache.get("older than 40", 1, this::namesOlderThan40);
+        var cachedNames = cache.get("older than 40", 1, this::namesOlderThan40);
+
+        Assert.assertSame(names, cachedNames);
+        Assert.assertEquals(1, executions);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(0.5, cache.getHitRate(), 0);
+    }
+
+    @Test
+    public void testNewVersionInvalidatesResult() {
+        var cache = new QueryCache<String, List<String>>(10);
+        Assert.assertEquals(List.of("SAndor", "Maca", "Papp Zsolt"), cache.get("older than 40", 1, this::namesOlderThan40));
+
+        people.remove(0);
+        Assert.assertEquals(List.of("Maca", "Papp Zsolt"), cache.get("older than 40", 2, this::namesOlderThan40));
+        Assert.assertEquals(2, executions);
+        Assert.assertEquals(1, cache.getInvalidationCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResultIsEvicted() {
+        var cache = new QueryCache<Integer, List<Integer>>(5, List::size);
+        cache.get(1, 0, () -> List.of(1, 2));
+        cache.get(2, 0, () -> List.of(1, 2));
+        cache.get(1, 0, () -> List.of(3));
+        cache.get(3, 0, () -> List.of(1, 2, 3));
+
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertEquals(5, cache.getWeight());
+        Assert.assertEquals(List.of(1, 2), cache.get(1, 0, () -> List.of(3)));
+        Assert.assertEquals(List.of(4), cache.get(2, 0, () -> List.of(4)));
+    }
+}
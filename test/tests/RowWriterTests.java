@@ -0,0 +1,74 @@
+package tests;
+
+import data.DataProvider;
+import data.Person;
+import data.Serializers;
+import linq.Linq;
+import linq.io.CsvEncoder;
+import linq.io.JsonLinesEncoder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+public class RowWriterTests {
+    private ArrayList<Person> people;
+
+    @Before
+    public void initialize() {
+        people = DataProvider.getPeople();
+    }
+
+    @Test
+    public void testWriteCsv() {
+        var writer = new StringWriter();
+        long rows = Linq.from(people)
+                .orderBy(p -> p.getAge())
+                .take(2)
+                .writeTo(writer, new CsvEncoder<Person>()
+                        .column("name", p -> p.getName())
+                        .column("age, years", p -> p.getAge()));
+
+        Assert.assertEquals(2, rows);
+        Assert.assertEquals("name,\"age, years\"\nTamás,22\nSAndor,48\n", writer.toString());
+    }
+
+    @Test
+    public void testWriteJsonLines() {
+        people.get(0).setName("\"Sanyi\"\n");
+        var stream = new ByteArrayOutputStream();
+        Linq.from(people)
+                .take(2)
+                .writeTo(stream, new JsonLinesEncoder<Person>()
+                        .field("name", p -> p.getName())
+                        .field("age", p -> p.getAge())
+                        .field("gender", p -> null));
+
+        Assert.assertEquals("{\"name\":\"\\\"Sanyi\\\"\\n\",\"age\":48,\"gender\":null}\n{\"name\":\"Maca\",\"age\":56,\"gender\":null}\n",
+                new String(stream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWriteMoreRowsThanTheBuffer() {
+        var numbers = new ArrayList<Integer>();
+        for (int i = 0; i < 100000; i++) {
+            numbers.add(99999 - i);
+        }
+
+        var stream = new ByteArrayOutputStream();
+        long rows = Linq.from(numbers)
+                .orderBy(n -> n)
+                .spillToDisk(10000, Serializers.integers())
+                .writeTo(stream, new CsvEncoder<Integer>().column("number", n -> "ő" + n));
+
+        var lines = new String(stream.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        Assert.assertEquals(100000, rows);
+        Assert.assertEquals(100001, lines.length);
+        Assert.assertEquals("ő0", lines[1]);
+        Assert.assertEquals("ő99999", lines[100000]);
+    }
+}
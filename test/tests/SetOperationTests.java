@@ -0,0 +1,85 @@
+package tests;
+
+import data.DataProvider;
+import data.Person;
+import linq.Linq;
+import linq.lambda.Func1;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SetOperationTests {
+    private List<Integer> numbers;
+    private List<Integer> otherNumbers;
+
+    @Before
+    public void initialize() {
+        numbers = List.of(5, 1, 3, 1, 7, 5);
+        otherNumbers = List.of(3, 8, 5, 8);
+    }
+
+    @Test
+    public void testUnion() {
+        var union = Linq.from(numbers).union(otherNumbers).toList();
+        Assert.assertEquals(List.of(5, 1, 3, 7, 8), union);
+    }
+
+    @Test
+    public void testIntersect() {
+        var intersection = Linq.from(numbers).intersect(Linq.from(otherNumbers)).toList();
+        Assert.assertEquals(List.of(5, 3), intersection);
+    }
+
+    @Test
+    public void testExcept() {
+        var difference = Linq.from(numbers).except(otherNumbers).toList();
+        Assert.assertEquals(List.of(1, 7), difference);
+    }
+
+    @Test
+    public void testExceptByKeepsFirstOfKey() {
+        ArrayList<Person> people = DataProvider.getPeople();
+        var onePerGender = Linq.from(people)
+                .exceptBy(new ArrayList<>(), p -> p.getGender())
+                .select(p -> p.getName())
+                .toList();
+
+        Assert.assertEquals(List.of("SAndor", "Maca"), onePerGender);
+    }
+
+    @Test
+    public void testMergeOperations() {
+        var ordered = Linq.from(numbers).orderBy(n -> n);
+        var otherOrdered = Linq.from(otherNumbers).orderBy(n -> n);
+
+        Assert.assertEquals(List.of(1, 3, 5, 7, 8), ordered.mergeUnionBy(otherOrdered, n -> n).toList());
+        Assert.assertEquals(List.of(3, 5), ordered.mergeIntersectBy(otherOrdered, n -> n).toList());
+        Assert.assertEquals(List.of(1, 7), ordered.mergeExceptBy(otherOrdered, n -> n).toList());
+    }
+
+    @Test
+    public void testMergeOperationsRejectUnorderedCollections() {
+        Func1<Integer, Integer> identity = n -> n;
+        var unordered = List.of(5, 1, 9);
+        var ordered = List.of(3, 7);
+
+        assertRejected(() -> Linq.from(unordered).mergeUnionBy(ordered, identity));
+        assertRejected(() -> Linq.from(ordered).mergeUnionBy(unordered, identity));
+        assertRejected(() -> Linq.from(unordered).mergeIntersectBy(ordered, identity));
+        assertRejected(() -> Linq.from(List.of(1, 5)).mergeIntersectBy(List.of(5, 1), identity));
+        assertRejected(() -> Linq.from(unordered).mergeExceptBy(ordered, identity));
+        assertRejected(() -> Linq.from(List.of(1)).mergeExceptBy(List.of(2, 0), identity));
+    }
+
+    private static void assertRejected(Runnable merge) {
+        try {
+            merge.run();
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("The collections must be ordered ascending by the key.", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package tests;
+
+import linq.Linq;
+import linq.aggregates.HyperLogLog;
+import linq.aggregates.QuantileSketch;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+public class SketchTests {
+    private ArrayList<Integer> numbers;
+
+    @Before
+    public void initialize() {
+        numbers = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            numbers.add((i * 7919) % 100000);
+        }
+    }
+
+    @Test
+    public void testApproxCountDistinct() {
+        long estimate = Linq.from(numbers).approxCountDistinct(n -> n % 20000, 12);
+        Assert.assertEquals(20000, estimate, 20000 * 0.05);
+        Assert.assertEquals(3, Linq.from(numbers).approxCountDistinct(n -> n % 3, 12));
+    }
+
+    @Test
+    public void testApproxCountDistinctLong() {
+        // Each key below 2^32 has the same hashCode as the key shifted by 32 bits
+        var query = Linq.from(numbers);
+
+        Assert.assertEquals(50000, query.approxCountDistinct(n -> n < 50000 ? (long) n : (long) (n - 50000) << 32, 14), 50000 * 0.03);
+        Assert.assertEquals(100000, query.approxCountDistinctLong(n -> n < 50000 ? n : (long) (n - 50000) << 32, 14), 100000 * 0.03);
+        Assert.assertEquals(3, query.approxCountDistinctLong(n -> n % 3, 12));
+    }
+
+    @Test
+    public void testMergeCountDistinctSketches() {
+        var first = Linq.from(numbers).take(60000).countDistinctSketch(n -> n, 14);
+        var second = Linq.from(numbers).skip(40000).countDistinctSketch(n -> n, 14);
+
+        Assert.assertEquals(100000, first.merge(second).estimate(), 100000 * 0.03);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentPrecisions() {
+        new HyperLogLog(10).merge(new HyperLogLog(11));
+    }
+
+    @Test
+    public void testApproxQuantile() {
+        var query = Linq.from(numbers);
+
+        Assert.assertEquals(50000, query.approxQuantile(n -> n, 0.5), 100000 * 0.02);
+        Assert.assertEquals(99000, query.approxQuantile(n -> n, 0.99), 100000 * 0.02);
+        Assert.assertEquals(0, query.approxQuantile(n -> n, 0), 0);
+        Assert.assertEquals(99999, query.approxQuantile(n -> n, 1), 0);
+    }
+
+    @Test
+    public void testMergeQuantileSketches() {
+        var merged = new QuantileSketch();
+        for (int part = 0; part < 10; part++) {
+            merged.merge(Linq.from(numbers).skip(part * 10000).take(10000).quantileSketch(n -> n));
+        }
+
+        Assert.assertEquals(100000, merged.getCount());
+        Assert.assertEquals(25000, merged.quantile(0.25), 100000 * 0.02);
+        Assert.assertTrue(Double.isNaN(new QuantileSketch().quantile(0.5)));
+    }
+}
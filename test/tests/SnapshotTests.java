@@ -0,0 +1,115 @@
+package tests;
+
+import data.DataProvider;
+import data.Person;
+import data.Serializers;
+import linq.Linq;
+import linq.io.ElementSerializer;
+import linq.io.QuerySnapshot;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class SnapshotTests {
+    private static final ElementSerializer<String> STRINGS = new ElementSerializer<>() {
+        @Override
+        public void write(DataOutput output, String element) throws IOException {
+            output.writeUTF(element);
+        }
+
+        @Override
+        public String read(DataInput input) throws IOException {
+            return input.readUTF();
+        }
+    };
+
+    private ArrayList<Person> people;
+    private Path directory;
+
+    @Before
+    public void initialize() throws IOException {
+        people = DataProvider.getPeople();
+        directory = Files.createTempDirectory("linq-snapshot");
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (var file : files.collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testOrderedListSnapshot() {
+        var path = directory.resolve("people.snapshot");
+        Linq.from(people).orderBy(p -> p.getAge()).saveSnapshot(path, Serializers.people());
+
+        var snapshot = QuerySnapshot.open(path, Serializers.people());
+        var expected = Linq.from(people).orderBy(p -> p.getAge()).select(p -> p.getName()).toList();
+        Assert.assertEquals(people.size(), snapshot.size());
+        Assert.assertEquals(expected, Linq.from(snapshot).select(p -> p.getName()).toList());
+        Assert.assertEquals(expected.get(2), snapshot.get(2).getName());
+    }
+
+    @Test
+    public void testSortedSnapshotAsIndex() {
+        var path = directory.resolve("numbers.snapshot");
+        Linq.from(IntStream.range(0, 10000).map(n -> 3 * n).boxed().collect(Collectors.toList())).saveSnapshot(path, Serializers.integers());
+
+        var snapshot = QuerySnapshot.open(path, Serializers.integers());
+        Assert.assertEquals(1234, Collections.binarySearch(snapshot, 3702));
+        Assert.assertTrue(Collections.binarySearch(snapshot, 3703) < 0);
+        Assert.assertEquals(List.of(30, 33), snapshot.subList(10, 12));
+    }
+
+    @Test
+    public void testGroupSnapshot() {
+        var path = directory.resolve("groups.snapshot");
+        Linq.from(people).saveGroupSnapshot(path, p -> p.getGender().name(), STRINGS, Serializers.people());
+
+        Map<String, List<Person>> groups = QuerySnapshot.openGroups(path, STRINGS, Serializers.people());
+        var expected = Linq.from(people).groupBy(p -> p.getGender().name(), g -> g.getKey() + ":" + g.count()).toList();
+        var actual = groups.entrySet().stream().map(e -> e.getKey() + ":" + e.getValue().size()).collect(Collectors.toList());
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testEmptySnapshotReplacesOldOne() {
+        var path = directory.resolve("empty.snapshot");
+        Linq.from(List.of(1, 2, 3)).saveSnapshot(path, Serializers.integers());
+        Linq.from(new ArrayList<Integer>()).saveSnapshot(path, Serializers.integers());
+
+        Assert.assertTrue(QuerySnapshot.open(path, Serializers.integers()).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOpeningListAsGroups() {
+        var path = directory.resolve("list.snapshot");
+        Linq.from(List.of(1, 2, 3)).saveSnapshot(path, Serializers.integers());
+        QuerySnapshot.openGroups(path, Serializers.integers(), Serializers.integers());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsReadOnly() {
+        var path = directory.resolve("readonly.snapshot");
+        Linq.from(List.of(1, 2, 3)).saveSnapshot(path, Serializers.integers());
+        QuerySnapshot.open(path, Serializers.integers()).set(0, 5);
+    }
+}
@@ -0,0 +1,110 @@
+package tests;
+
+import data.Gender;
+import linq.Linq;
+import linq.orders.Direction;
+import linq.orders.OrderBase;
+import linq.orders.OrderByComparable;
+import linq.orders.OrderByComparator;
+import linq.orders.Sorter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class SortAlgorithmTests {
+    private List<Object[]> rows;
+
+    @Before
+    public void initialize() {
+        var random = new Random(42);
+        var genders = Gender.values();
+        rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            rows.add(new Object[] {
+                    random.nextInt(20) - 10,
+                    random.nextLong(),
+                    "k" + random.nextInt(30),
+                    genders[random.nextInt(genders.length)],
+                    i
+            });
+        }
+    }
+
+    private List<Object[]> referenceSort(Comparator<Object[]> comparator) {
+        var sorted = new ArrayList<>(rows);
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+    @Test
+    public void testRadixSortMatchesComparisonSort() {
+        var sorted = Linq.from(rows)
+                .orderBy(r -> (Gender) r[3])
+                .thenByDescending(r -> (Integer) r[0])
+                .thenBy(r -> (String) r[2])
+                .toList();
+
+        var reference = referenceSort(Comparator.<Object[], Gender>comparing(r -> (Gender) r[3])
+                .thenComparing(r -> (Integer) r[0], Comparator.reverseOrder())
+                .thenComparing(r -> (String) r[2]));
+
+        for (int i = 0; i < reference.size(); i++) {
+            Assert.assertEquals(reference.get(i)[4], sorted.get(i)[4]);
+        }
+    }
+
+    @Test
+    public void testSignedLongsAndStringPrefixes() {
+        var sortedLongs = Linq.from(rows).orderBy(r -> (Long) r[1]).select(r -> (Long) r[1]).toList();
+        for (int i = 1; i < sortedLongs.size(); i++) {
+            Assert.assertTrue(sortedLongs.get(i - 1) <= sortedLongs.get(i));
+        }
+
+        var strings = Linq.from(List.of("ab", "", "abc", "b", "a"))
+                .orderByDescending(s -> s)
+                .toList();
+        Assert.assertEquals(List.of("b", "abc", "ab", "a", ""), strings);
+    }
+
+    @Test
+    public void testComparatorOrderingIsStable() {
+        List<OrderBase<Object[], ?>> orders = List.of(
+                new OrderByComparator<Object[], Integer>(r -> (Integer) r[0], Direction.ASCENDING, Comparator.naturalOrder()),
+                new OrderByComparable<Object[], String>(r -> (String) r[2], Direction.DESCENDING));
+        var sorted = new Sorter<>(orders).sort(rows);
+
+        var reference = referenceSort(Comparator.<Object[], Integer>comparing(r -> (Integer) r[0])
+                .thenComparing(r -> (String) r[2], Comparator.reverseOrder()));
+
+        for (int i = 0; i < reference.size(); i++) {
+            Assert.assertEquals(reference.get(i)[4], sorted.get(i)[4]);
+        }
+    }
+
+    @Test
+    public void testParallelSortMatchesSequentialSort() {
+        var pool = new ForkJoinPool(4);
+        try {
+            var sorted = Linq.from(rows)
+                    .orderBy(r -> (Integer) r[0], Comparator.<Integer>reverseOrder())
+                    .thenBy(r -> (String) r[2], Comparator.<String>naturalOrder())
+                    .parallel(pool, 64)
+                    .toList();
+
+            var reference = referenceSort(Comparator.<Object[], Integer>comparing(r -> (Integer) r[0], Comparator.reverseOrder())
+                    .thenComparing(r -> (String) r[2]));
+
+            for (int i = 0; i < reference.size(); i++) {
+                Assert.assertEquals(reference.get(i)[4], sorted.get(i)[4]);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
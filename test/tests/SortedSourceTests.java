@@ -0,0 +1,213 @@
+package tests;
+
+import data.DataProvider;
+import data.Gender;
+import data.Person;
+import linq.Linq;
+import linq.lambda.Func1;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SortedSourceTests {
+    private ArrayList<Person> testCollection;
+    private int selectorCalls;
+    private Func1<Person, Integer> countingAgeSelector;
+
+    @Before
+    public void initialize() {
+        testCollection = DataProvider.getPeople();
+        selectorCalls = 0;
+        countingAgeSelector = p -> {
+            selectorCalls++;
+            return p.getAge();
+        };
+    }
+
+    @Test
+    public void testSortedSetMinMax() {
+        var numbers = new TreeSet<>(List.of(5, 3, 9, 1));
+        Assert.assertEquals(Integer.valueOf(1), Linq.from(numbers).min());
+        Assert.assertEquals(Integer.valueOf(9), Linq.from(numbers).max());
+
+        var descending = new TreeSet<Integer>(Comparator.reverseOrder());
+        descending.addAll(numbers);
+        Assert.assertEquals(Integer.valueOf(9), Linq.from(descending).min(Comparator.reverseOrder()));
+        Assert.assertEquals(List.of(5, 3), Linq.from(descending).whereBetween(n -> n, 2, 6).toList());
+    }
+
+    @Test
+    public void testOrderingByTheSameSelectorIsSkipped() {
+        var ordered = Linq.from(testCollection)
+                .orderBy(countingAgeSelector)
+                .select();
+        int callsOfFirstOrdering = selectorCalls;
+
+        var names = ordered.orderBy(countingAgeSelector)
+                .select(p -> p.getName())
+                .toList();
+
+        Assert.assertTrue(callsOfFirstOrdering > 0);
+        Assert.assertEquals(callsOfFirstOrdering, selectorCalls);
+        Assert.assertEquals("Tamás", names.get(0));
+    }
+
+    @Test
+    public void testMinMaxOnOrderedKey() {
+        var numbers = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            numbers.add((i * 7919) % 1000);
+        }
+
+        Func1<Integer, Integer> countingSelector = n -> {
+            selectorCalls++;
+            return n;
+        };
+        var ordered = Linq.from(numbers).orderBy(countingSelector).select();
+        selectorCalls = 0;
+
+        Assert.assertEquals(Integer.valueOf(0), ordered.min(countingSelector));
+        Assert.assertEquals(Integer.valueOf(999), ordered.maxBy(countingSelector));
+        Assert.assertTrue(selectorCalls < 100);
+    }
+
+    @Test
+    public void testMinByKeepsLastOfEqualElements() {
+        Func1<Person, Gender> genderSelector = p -> p.getGender();
+        var unordered = Linq.from(testCollection).minBy(genderSelector);
+        var ordered = Linq.from(testCollection).orderBy(genderSelector).select().minBy(genderSelector);
+
+        Assert.assertEquals(unordered.getName(), ordered.getName());
+    }
+
+    @Test
+    public void testWhereBetween() {
+        var unordered = Linq.from(testCollection)
+                .whereBetween(countingAgeSelector, 40, 56)
+                .select(p -> p.getName())
+                .toList();
+        var ordered = Linq.from(testCollection)
+                .orderByDescending(countingAgeSelector)
+                .whereBetween(countingAgeSelector, 40, 56)
+                .select(p -> p.getName())
+                .toList();
+
+        Assert.assertEquals(List.of("SAndor", "Maca"), unordered);
+        Assert.assertEquals(List.of("Maca", "SAndor"), ordered);
+    }
+
+    @Test
+    public void testOrderedQueryIsOrderedOnce() {
+        var ordered = Linq.from(testCollection).orderBy(countingAgeSelector);
+        var names = ordered.select(p -> p.getName()).toList();
+        int callsOfFirstOrdering = selectorCalls;
+
+        Assert.assertEquals(names, Linq.from(ordered.toList()).select(p -> p.getName()).toList());
+        Assert.assertEquals("Tamás", ordered.first().getName());
+        Assert.assertEquals("Papp Zsolt", ordered.last().getName());
+        Assert.assertEquals(2, ordered.skip(2).count());
+        Assert.assertEquals(callsOfFirstOrdering, selectorCalls);
+
+        ordered.thenBy(p -> p.getName());
+        Assert.assertEquals("Tamás", ordered.first().getName());
+        Assert.assertTrue(selectorCalls > callsOfFirstOrdering);
+    }
+
+    @Test
+    public void testOrderedQueryIsSharedBetweenThreads() throws InterruptedException {
+        var numbers = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i++) {
+            numbers.add((i * 7919) % 10000);
+        }
+
+        var calls = new AtomicInteger();
+        var ordered = Linq.from(numbers).orderBy(n -> {
+            calls.incrementAndGet();
+            return n;
+        });
+
+        var results = new ConcurrentLinkedQueue<List<Integer>>();
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            var thread = new Thread(() -> results.add(ordered.toList()));
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(numbers.size(), calls.get());
+        for (var result : results) {
+            Assert.assertEquals(Integer.valueOf(0), result.get(0));
+            Assert.assertEquals(Integer.valueOf(9999), result.get(9999));
+        }
+    }
+
+    @Test
+    public void testTerminalsRunConcurrentlyWithOrdering() throws InterruptedException {
+        var numbers = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i++) {
+            numbers.add((i * 7919) % 10000);
+        }
+
+        Func1<Integer, Integer> selector = n -> n;
+        for (int round = 0; round < 20; round++) {
+            var ordered = Linq.from(numbers).orderBy(selector);
+            var failures = new ConcurrentLinkedQueue<Throwable>();
+            var threads = new ArrayList<Thread>();
+            for (int i = 0; i < 8; i++) {
+                int task = i;
+                var thread = new Thread(() -> {
+                    try {
+                        if (task % 2 == 0) {
+                            Assert.assertEquals(Integer.valueOf(0), ordered.first());
+                        } else {
+                            Assert.assertEquals(Integer.valueOf(0), ordered.min(selector));
+                            Assert.assertEquals(Integer.valueOf(9999), ordered.maxBy(selector));
+                            Assert.assertEquals(Integer.valueOf(10), ordered.nth(selector, 10));
+                            Assert.assertEquals(Integer.valueOf(4999), ordered.median(selector));
+                            Assert.assertEquals(10000, ordered.count());
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+
+            for (var thread : threads) {
+                thread.join();
+            }
+
+            Assert.assertTrue(failures.isEmpty());
+        }
+    }
+
+    @Test
+    public void testConcatForgetsSortOrder() {
+        Assert.assertEquals(Integer.valueOf(1), Linq.from(new TreeSet<>(List.of(3, 5, 7))).concat(List.of(1, 9)).min());
+        Assert.assertEquals(List.of(1, 3, 5, 7), Linq.from(new TreeSet<>(List.of(3, 5, 7))).concat(List.of(1)).orderBy(Func1.identity()).toList());
+        Assert.assertEquals(Integer.valueOf(9), Linq.from(new TreeSet<>(List.of(3, 5, 7))).concat(Linq.from(List.of(9, 1))).max());
+    }
+
+    @Test
+    public void testToListDoesNotExposeOrdering() {
+        var query = Linq.from(List.of(5, 1, 9, 3)).orderBy(Func1.identity());
+        var list = query.toList();
+        list.add(0);
+
+        Assert.assertEquals(List.of(1, 3, 5, 9), query.toList());
+        Assert.assertEquals(Integer.valueOf(1), query.min());
+        Assert.assertEquals(List.of(1, 3), query.take(2).toList());
+    }
+}
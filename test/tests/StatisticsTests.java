@@ -0,0 +1,58 @@
+package tests;
+
+import data.DataProvider;
+import data.Person;
+import linq.Linq;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+public class StatisticsTests {
+    private ArrayList<Person> testCollection;
+
+    @Before
+    public void initialize() {
+        testCollection = DataProvider.getPeople();
+    }
+
+    @Test
+    public void testStats() {
+        var stats = Linq.from(testCollection).stats(p -> p.getAge());
+
+        Assert.assertEquals(4, stats.getCount());
+        Assert.assertEquals(183, stats.getSum(), 0.0001);
+        Assert.assertEquals(22, stats.getMin(), 0.0001);
+        Assert.assertEquals(57, stats.getMax(), 0.0001);
+        Assert.assertEquals(45.75, stats.getAverage(), 0.0001);
+        Assert.assertEquals(200.1875, stats.getVariance(), 0.0001);
+    }
+
+    @Test
+    public void testStatsDoubleMatchesStats() {
+        var stats = Linq.from(testCollection).stats(p -> p.getAge());
+        var primitiveStats = Linq.from(testCollection).statsDouble(p -> p.getAge());
+
+        Assert.assertEquals(stats.getAverage(), primitiveStats.getAverage(), 0.0001);
+        Assert.assertEquals(stats.getVariance(), primitiveStats.getVariance(), 0.0001);
+    }
+
+    @Test
+    public void testCombinedStats() {
+        var stats = Linq.from(testCollection).take(2).statsDouble(p -> p.getAge())
+                .combine(Linq.from(testCollection).skip(2).statsDouble(p -> p.getAge()));
+
+        Assert.assertEquals(4, stats.getCount());
+        Assert.assertEquals(45.75, stats.getAverage(), 0.0001);
+        Assert.assertEquals(200.1875, stats.getVariance(), 0.0001);
+    }
+
+    @Test
+    public void testStatsOnEmpty() {
+        var stats = Linq.from(new ArrayList<Person>()).statsDouble(p -> p.getAge());
+
+        Assert.assertEquals(0, stats.getCount());
+        Assert.assertTrue(Double.isNaN(stats.getAverage()));
+    }
+}
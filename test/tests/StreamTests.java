@@ -0,0 +1,92 @@
+package tests;
+
+import data.DataProvider;
+import data.Person;
+import linq.Linq;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class StreamTests {
+    private ArrayList<Person> people;
+
+    @Before
+    public void initialize() {
+        people = DataProvider.getPeople();
+    }
+
+    @Test
+    public void testSpliteratorCharacteristics() {
+        var spliterator = Linq.from(people).spliterator();
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Assert.assertFalse(spliterator.hasCharacteristics(Spliterator.SORTED));
+        Assert.assertFalse(spliterator.hasCharacteristics(Spliterator.DISTINCT));
+        Assert.assertEquals(4, spliterator.getExactSizeIfKnown());
+
+        var sortedSpliterator = Linq.from(new TreeSet<>(List.of(3, 1, 2))).where(n -> n > 1).spliterator();
+        Assert.assertTrue(sortedSpliterator.hasCharacteristics(Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.SIZED));
+        Assert.assertNull(sortedSpliterator.getComparator());
+    }
+
+    @Test
+    public void testConcatIsNotDistinct() {
+        var query = Linq.from(new HashSet<>(List.of(1, 2))).concat(List.of(1));
+        Assert.assertFalse(query.spliterator().hasCharacteristics(Spliterator.DISTINCT));
+        Assert.assertEquals(2, query.toStream().distinct().count());
+
+        var otherQuery = Linq.from(new HashSet<>(List.of(1, 2))).concat(Linq.from(List.of(2)));
+        Assert.assertFalse(otherQuery.spliterator().hasCharacteristics(Spliterator.DISTINCT));
+    }
+
+    @Test
+    public void testLazyForEachWithImplicitLambda() {
+        var numbers = new ArrayList<Integer>();
+        Linq.from(Stream.of(1, 2, 3)).forEach(n -> numbers.add(n));
+        Assert.assertEquals(List.of(1, 2, 3), numbers);
+    }
+
+    @Test
+    public void testOrderedQueryReportsComparator() {
+        var spliterator = Linq.from(people).orderByDescending(p -> p.getAge()).spliterator();
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SORTED));
+
+        var comparator = spliterator.getComparator();
+        Assert.assertTrue(comparator.compare(people.get(2), people.get(3)) < 0);
+    }
+
+    @Test
+    public void testParallelStream() {
+        var numbers = new ArrayList<Integer>();
+        for (int i = 0; i < 100000; i++) {
+            numbers.add(i);
+        }
+
+        long sum = Linq.from(numbers).selectDistinct().toStream().parallel().mapToLong(n -> n).sum();
+        Assert.assertEquals(4999950000L, sum);
+        Assert.assertEquals(List.of("Tamás", "SAndor", "Maca", "Papp Zsolt"),
+                Linq.from(people).orderBy(p -> p.getAge()).toStream().parallel().map(p -> p.getName()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testStreamSourceIsLazy() {
+        var produced = new ArrayList<Integer>();
+        var evenSquares = Linq.from(Stream.iterate(0, n -> n + 1).peek(produced::add))
+                .where(n -> n % 2 == 0)
+                .select(n -> n * n)
+                .take(3)
+                .toList();
+
+        Assert.assertEquals(List.of(0, 4, 16), evenSquares);
+        Assert.assertEquals(5, produced.size());
+        Assert.assertEquals(Integer.valueOf(7), Linq.from(Stream.of(5, 6, 7, 8)).skip(2).first());
+        Assert.assertTrue(Linq.from(Stream.iterate(1, n -> n * 2)).any(n -> n > 1000));
+    }
+}
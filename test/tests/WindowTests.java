@@ -0,0 +1,67 @@
+package tests;
+
+import linq.Linq;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class WindowTests {
+    private List<Integer> numbers;
+
+    @Before
+    public void initialize() {
+        numbers = List.of(4, 1, 3, 5, 2, 6, 0);
+    }
+
+    @Test
+    public void testScan() {
+        var runningSums = Linq.from(numbers).scan(0, (sum, n) -> sum + n).toList();
+        Assert.assertEquals(List.of(4, 5, 8, 13, 15, 21, 21), runningSums);
+    }
+
+    @Test
+    public void testSlidingSumAndAverage() {
+        Assert.assertEquals(List.of(8.0, 9.0, 10.0, 13.0, 8.0), Linq.from(numbers).slidingWindow(3).thenSum(n -> n).toList());
+        Assert.assertEquals(List.of(2.5, 2.0, 4.0, 3.5, 4.0, 3.0), Linq.from(numbers).slidingWindow(2).thenAverage(n -> n).toList());
+    }
+
+    @Test
+    public void testSlidingSumRecoversPrecision() {
+        Assert.assertEquals(List.of(1.0E17, 2.0, 2.0, 2.0),
+                Linq.from(List.of(1.0E17, 1.0, 1.0, 1.0, 1.0)).slidingWindow(2).thenSum(x -> x).toList());
+        Assert.assertEquals(List.of(Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.MAX_VALUE, 2.0),
+                Linq.from(List.of(1.0, Double.MAX_VALUE, Double.MAX_VALUE, 1.0, 1.0)).slidingWindow(2).thenSum(x -> x).toList());
+    }
+
+    @Test
+    public void testSlidingSumRecoversFromNonFiniteValues() {
+        var sums = Linq.from(List.of(1.0, Double.NaN, 2.0, Double.POSITIVE_INFINITY, 3.0, Double.NEGATIVE_INFINITY, 4.0, 5.0))
+                .slidingWindow(2).thenSum(x -> x).toList();
+
+        Assert.assertEquals(List.of(Double.NaN, Double.NaN, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, 9.0), sums);
+        Assert.assertEquals(List.of(Double.NaN, 2.5),
+                Linq.from(List.of(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 2.0, 3.0)).tumblingWindow(2).thenAverage(x -> x).toList());
+    }
+
+    @Test
+    public void testSlidingMinAndMax() {
+        Assert.assertEquals(List.of(1.0, 1.0, 2.0, 2.0, 0.0), Linq.from(numbers).slidingWindow(3).thenMin(n -> n).toList());
+        Assert.assertEquals(List.of(4.0, 5.0, 5.0, 6.0, 6.0), Linq.from(numbers).slidingWindow(3).thenMax(n -> n).toList());
+    }
+
+    @Test
+    public void testTumblingWindow() {
+        Assert.assertEquals(List.of(3, 3, 1), Linq.from(numbers).tumblingWindow(3).thenCount().toList());
+        Assert.assertEquals(List.of(1.0, 2.0, 0.0), Linq.from(numbers).tumblingWindow(3).thenMin(n -> n).toList());
+        Assert.assertEquals(List.of(List.of(4, 1, 3), List.of(5, 2, 6), List.of(0)),
+                Linq.from(numbers).tumblingWindow(3).then(w -> w).toList());
+    }
+
+    @Test
+    public void testWindowLargerThanCollection() {
+        Assert.assertEquals(0, Linq.from(numbers).slidingWindow(10).thenSum(n -> n).count());
+    }
+}